@@ -0,0 +1,83 @@
+package sugar.ini.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sugar.ini.Ini;
+import sugar.ini.IniDeserializer;
+import sugar.ini.IniKey;
+import sugar.ini.Section;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Section} 和 {@link Ini} 中按名称读取值的性能
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class AccessBenchmark {
+    private static final int SECTIONS = 100;
+    private static final int KEYS = 40;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    private Ini ini;
+    private Section section;
+    private String[] sectionNames;
+    private String[] keyNames;
+    private String[] intKeyNames;
+    private IniKey<Integer> intKey;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String content = IniInputs.generate(SECTIONS, KEYS, 0.2, 0);
+        ini = new IniDeserializer().setCompactSections(compact).read(new StringReader(content));
+        sectionNames = new String[SECTIONS];
+        for (int i = 0; i < SECTIONS; i++) sectionNames[i] = IniInputs.sectionName(i);
+        keyNames = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) keyNames[i] = IniInputs.keyName(i);
+        // Every fourth key holds an integer
+        intKeyNames = new String[KEYS / 4];
+        for (int i = 0; i < intKeyNames.length; i++) intKeyNames[i] = IniInputs.keyName(i * 4);
+        section = ini.get(sectionNames[SECTIONS / 2]);
+        intKey = ini.bind(sectionNames[SECTIONS / 2], intKeyNames[1], Integer.class);
+    }
+
+    private int next(int bound) {
+        int i = index + 1;
+        if (i >= bound) i = 0;
+        index = i;
+        return i;
+    }
+
+    @Benchmark
+    public String sectionGet() {
+        return section.get(keyNames[next(KEYS)]);
+    }
+
+    @Benchmark
+    public int sectionGetAsInt() {
+        return section.getAsInt(intKeyNames[next(intKeyNames.length)]);
+    }
+
+    @Benchmark
+    public String iniGetItemValue() {
+        int i = next(SECTIONS);
+        return ini.getItemValue(sectionNames[i], keyNames[i % KEYS]);
+    }
+
+    @Benchmark
+    public int iniGetItemValueAsInt() {
+        return ini.getItemValueAsInt(sectionNames[SECTIONS / 2], intKeyNames[1]);
+    }
+
+    @Benchmark
+    public Integer iniKeyGet() {
+        return intKey.get();
+    }
+}
@@ -0,0 +1,33 @@
+package sugar.ini.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行基准测试的入口
+ * <p>在 JMH 命令行参数的基础上，默认启用 {@link GCProfiler}（输出分配速率），并将结果以 JSON 格式写入 {@code jmh-result.json}，
+ * 便于在不同版本间对比。例如：{@code java -jar target/benchmarks.jar ParseBenchmark}</p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        builder.addProfiler(GCProfiler.class);
+        if (!commandLine.getResult().hasValue()) builder.result("jmh-result.json");
+        if (!commandLine.getResultFormat().hasValue()) builder.resultFormat(ResultFormatType.JSON);
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
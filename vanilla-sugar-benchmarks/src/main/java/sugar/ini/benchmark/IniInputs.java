@@ -0,0 +1,70 @@
+package sugar.ini.benchmark;
+
+import java.util.Random;
+
+/**
+ * 生成基准测试使用的 INI 内容
+ * <p>使用固定的随机数种子，相同参数总是生成相同的内容，以便在不同版本间比较结果。</p>
+ */
+final class IniInputs {
+    static final long SEED = 0x5eed_1417L;
+
+    private static final String[] WORDS = {
+            "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel", "india", "juliet"
+    };
+
+    private IniInputs() {
+    }
+
+    /**
+     * 生成 INI 内容
+     *
+     * @param sections       区块数量
+     * @param keys           每个区块中的项数
+     * @param commentRatio   每一项之前出现注释的概率
+     * @param danglingLines  每个区块顶部非注释文本的行数
+     * @return INI 内容
+     */
+    static String generate(int sections, int keys, double commentRatio, int danglingLines) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder(sections * keys * 24);
+        builder.append("; generated for benchmarks\n");
+        builder.append("version = 1\n");
+        for (int s = 0; s < sections; s++) {
+            builder.append('[').append(sectionName(s)).append("]\n");
+            for (int d = 0; d < danglingLines; d++) {
+                builder.append("dangling text line ").append(d).append(" of ").append(WORDS[random.nextInt(WORDS.length)])
+                        .append('\n');
+            }
+            for (int k = 0; k < keys; k++) {
+                if (random.nextDouble() < commentRatio) {
+                    builder.append(random.nextBoolean() ? "; " : "# ").append("comment about ").append(keyName(k))
+                            .append('\n');
+                }
+                builder.append(keyName(k)).append(" = ").append(value(random, k)).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    static String sectionName(int index) {
+        return "section." + index;
+    }
+
+    static String keyName(int index) {
+        return "key" + index;
+    }
+
+    private static String value(Random random, int index) {
+        switch (index % 4) {
+            case 0:
+                return String.valueOf(random.nextInt(100_000));
+            case 1:
+                return String.valueOf(random.nextBoolean());
+            case 2:
+                return WORDS[random.nextInt(WORDS.length)] + '-' + WORDS[random.nextInt(WORDS.length)];
+            default:
+                return "https://" + WORDS[random.nextInt(WORDS.length)] + ".example.com/" + random.nextInt(1000);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package sugar.ini.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sugar.ini.Ini;
+import sugar.ini.IniDeserializer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IniDeserializer} 的解析性能
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ParseBenchmark {
+    @Param({"10", "1000"})
+    public int sections;
+
+    @Param({"20"})
+    public int keys;
+
+    @Param({"0", "0.5"})
+    public double commentRatio;
+
+    @Param({"0", "3"})
+    public int danglingLines;
+
+    private final IniDeserializer deserializer = new IniDeserializer();
+    private final IniDeserializer compactDeserializer = new IniDeserializer().setCompactSections(true);
+    private String content;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = IniInputs.generate(sections, keys, commentRatio, danglingLines);
+        file = Files.createTempFile("ini-benchmark", ".ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Ini readReader() {
+        return deserializer.read(new StringReader(content));
+    }
+
+    @Benchmark
+    public Ini readCompact() {
+        return compactDeserializer.read(new StringReader(content));
+    }
+
+    @Benchmark
+    public Ini readMapped() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return deserializer.read(channel, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public Ini readParallel() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return deserializer.readParallel(channel, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package sugar.ini.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sugar.ini.Ini;
+import sugar.ini.IniDeserializer;
+import sugar.ini.IniSerializer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IniSerializer} 的输出性能
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SerializeBenchmark {
+    @Param({"10", "1000"})
+    public int sections;
+
+    @Param({"20"})
+    public int keys;
+
+    @Param({"0", "0.5"})
+    public double commentRatio;
+
+    @Param({"0", "3"})
+    public int danglingLines;
+
+    private final IniSerializer serializer = new IniSerializer();
+    private Ini ini;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String content = IniInputs.generate(sections, keys, commentRatio, danglingLines);
+        ini = new IniDeserializer().read(new StringReader(content));
+    }
+
+    @Benchmark
+    public int writeWriter() {
+        StringWriter writer = new StringWriter();
+        serializer.write(ini, writer);
+        return writer.getBuffer().length();
+    }
+
+    @Benchmark
+    public long writeChannel() {
+        DiscardingChannel channel = new DiscardingChannel();
+        serializer.write(ini, channel, StandardCharsets.UTF_8);
+        return channel.written;
+    }
+
+    /**
+     * 丢弃所有内容的通道，避免测量到磁盘 IO
+     */
+    private static final class DiscardingChannel implements WritableByteChannel {
+        private long written;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int n = src.remaining();
+            // Casts to Buffer to stay compatible with Java 8 runtime
+            ((Buffer) src).position(src.limit());
+            written += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
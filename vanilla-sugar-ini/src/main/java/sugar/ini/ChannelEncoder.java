@@ -0,0 +1,139 @@
+package sugar.ini;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+
+/**
+ * 将文本直接编码到字节缓冲区，并在缓冲区写满时整块写入 {@link WritableByteChannel}
+ * <p>对于 UTF-8、US-ASCII 和 ISO-8859-1 字符集，逐个字符直接计算字节，不经过 {@link CharsetEncoder}；
+ * 其他字符集使用 {@link CharsetEncoder} 编码。无法编码的字符与 {@link java.io.OutputStreamWriter} 一样替换为 {@code '?'}。</p>
+ */
+final class ChannelEncoder {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int UTF_8 = 0;
+    private static final int SINGLE_BYTE = 1;
+    private static final int OTHER = 2;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final int mode;
+    /**
+     * 单字节字符集中可以直接输出的最大字符
+     */
+    private final char maxChar;
+    private final CharsetEncoder encoder;
+
+    /**
+     * @param buffer 编码使用的缓冲区（会被清空），容量不能小于 4 字节
+     */
+    ChannelEncoder(WritableByteChannel channel, Charset charset, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        // Casts to Buffer to stay compatible with Java 8 runtime
+        ((Buffer) buffer).clear();
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            mode = UTF_8;
+            maxChar = 0;
+            encoder = null;
+        } else if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            mode = SINGLE_BYTE;
+            maxChar = StandardCharsets.US_ASCII.equals(charset) ? '\u007f' : '\u00ff';
+            encoder = null;
+        } else {
+            mode = OTHER;
+            maxChar = 0;
+            encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+    }
+
+    void write(String s) throws IOException {
+        switch (mode) {
+            case UTF_8:
+                writeUtf8(s);
+                break;
+            case SINGLE_BYTE:
+                writeSingleByte(s);
+                break;
+            default:
+                encode(CharBuffer.wrap(s), false);
+        }
+    }
+
+    /**
+     * 结束编码，将缓冲区中剩余的内容写入通道
+     */
+    void finish() throws IOException {
+        if (encoder != null) {
+            encode(CharBuffer.allocate(0), true);
+            while (encoder.flush(buffer).isOverflow()) flushBuffer();
+        }
+        flushBuffer();
+    }
+
+    private void writeUtf8(String s) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < 4) flushBuffer();
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xc0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buffer.put((byte) (0xf0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                    buffer.put((byte) (0x80 | (cp & 0x3f)));
+                } else {
+                    // Malformed surrogate
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xe0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put((byte) (0x80 | (c & 0x3f)));
+            }
+        }
+    }
+
+    private void writeSingleByte(String s) throws IOException {
+        ByteBuffer buffer = this.buffer;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            if (!buffer.hasRemaining()) flushBuffer();
+            char c = s.charAt(i);
+            if (c <= maxChar) {
+                buffer.put((byte) c);
+            } else {
+                // A surrogate pair is replaced as one character
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) i++;
+                buffer.put((byte) '?');
+            }
+        }
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, endOfInput);
+            if (!result.isOverflow()) return;
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        ((Buffer) buffer).clear();
+    }
+}
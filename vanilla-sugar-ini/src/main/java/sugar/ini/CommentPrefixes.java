@@ -0,0 +1,143 @@
+package sugar.ini;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+
+/**
+ * 按首个字符（或字节）索引的注释前缀表
+ * <p>判断一行是否为注释时，只需要查找以当前字符开头的前缀，不需要逐个前缀在整行中查找。
+ * 多个前缀都能匹配时，与 {@link IniDeserializer#parseComment(String, String[])} 一样，以前缀的顺序为准。</p>
+ */
+final class CommentPrefixes {
+    private static final int[] NONE = new int[0];
+
+    /**
+     * 各前缀的字符（或无符号字节）
+     */
+    private final int[][] units;
+    /**
+     * 首个单元 -> 以其开头的前缀的序号（升序）
+     */
+    private final int[][] table;
+    /**
+     * 首个单元超出 {@link #table} 范围的前缀的序号（升序）
+     */
+    private final int[] others;
+    /**
+     * 首个空前缀的序号（空前缀与任意一行的开头匹配），没有则为 {@link Integer#MAX_VALUE}
+     */
+    private final int empty;
+
+    private CommentPrefixes(int[][] units, int tableSize) {
+        this.units = units;
+        this.table = new int[tableSize][];
+        int[] others = NONE;
+        int empty = Integer.MAX_VALUE;
+        for (int i = 0; i < units.length; i++) {
+            int[] prefix = units[i];
+            if (prefix.length == 0) {
+                empty = Math.min(empty, i);
+                continue;
+            }
+            int first = prefix[0];
+            if (first < tableSize) table[first] = append(table[first], i);
+            else others = append(others, i);
+        }
+        this.others = others;
+        this.empty = empty;
+    }
+
+    /**
+     * 用于在字符上匹配的前缀表
+     */
+    static CommentPrefixes ofChars(Collection<String> prefixes) {
+        int[][] units = new int[prefixes.size()][];
+        int i = 0;
+        for (String prefix : prefixes) {
+            int[] u = new int[prefix.length()];
+            for (int j = 0; j < u.length; j++) u[j] = prefix.charAt(j);
+            units[i++] = u;
+        }
+        return new CommentPrefixes(units, 128);
+    }
+
+    /**
+     * 用于在以 {@code charset} 编码的字节上匹配的前缀表
+     */
+    static CommentPrefixes ofBytes(Collection<String> prefixes, Charset charset) {
+        int[][] units = new int[prefixes.size()][];
+        int i = 0;
+        for (String prefix : prefixes) {
+            byte[] bytes = prefix.getBytes(charset);
+            int[] u = new int[bytes.length];
+            for (int j = 0; j < u.length; j++) u[j] = bytes[j] & 0xff;
+            units[i++] = u;
+        }
+        return new CommentPrefixes(units, 256);
+    }
+
+    /**
+     * 在 [{@code from}, {@code to}) 范围内的位置 {@code i} 上查找能匹配的前缀，且序号小于 {@code best}
+     *
+     * @return 能匹配的序号最小的前缀，没有则返回 -1
+     */
+    int match(char[] chars, int i, int to, int best) {
+        int[] candidates = candidates(chars[i]);
+        for (int index : candidates) {
+            if (index >= best) break;
+            int[] prefix = units[index];
+            if (i + prefix.length > to) continue;
+            int j = 0;
+            while (j < prefix.length && chars[i + j] == prefix[j]) j++;
+            if (j == prefix.length) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * 与 {@link #match(char[], int, int, int)} 相同，在字节上查找
+     */
+    int match(ByteBuffer bytes, int i, int to, int best) {
+        int[] candidates = candidates(bytes.get(i) & 0xff);
+        for (int index : candidates) {
+            if (index >= best) break;
+            int[] prefix = units[index];
+            if (i + prefix.length > to) continue;
+            int j = 0;
+            while (j < prefix.length && (bytes.get(i + j) & 0xff) == prefix[j]) j++;
+            if (j == prefix.length) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * 首个空前缀的序号，没有则为 {@link Integer#MAX_VALUE}
+     */
+    int empty() {
+        return empty;
+    }
+
+    /**
+     * 前缀的长度（字符数或字节数）
+     */
+    int length(int index) {
+        return units[index].length;
+    }
+
+    private int[] candidates(int first) {
+        if (first < table.length) {
+            int[] candidates = table[first];
+            return candidates != null ? candidates : NONE;
+        }
+        return others;
+    }
+
+    private static int[] append(int[] array, int value) {
+        if (array == null) return new int[]{value};
+        int[] copy = new int[array.length + 1];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        copy[array.length] = value;
+        return copy;
+    }
+}
@@ -0,0 +1,107 @@
+package sugar.ini;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 区块内容的紧凑存储结构（不可变）
+ * <p>键名和值按添加顺序存放在两个平行数组中，并以开放寻址的哈希表（只存放数组下标）建立索引。
+ * 所有注释按顺序存放在同一个数组中，通过偏移量数组划分归属：顶部注释，以及每一项之后的注释。</p>
+ */
+final class CompactSection {
+    private final String[] keys;
+    private final String[] values;
+    /**
+     * 开放寻址哈希表，元素为 下标 + 1（0 表示空位）
+     */
+    private final int[] table;
+    /**
+     * 全部注释，没有任何注释时为 {@code null}
+     */
+    private final String[] comments;
+    /**
+     * 注释的分段偏移量（长度为项数 + 2）：顶部注释为 [0], [1]，第 i 项之后的注释为 [i + 1], [i + 2]
+     */
+    private final int[] commentOffsets;
+
+    CompactSection(String[] keys, String[] values, String[] comments, int[] commentOffsets) {
+        this.keys = keys;
+        this.values = values;
+        this.comments = comments;
+        this.commentOffsets = comments != null ? commentOffsets : null;
+        int capacity = 1;
+        while (capacity < keys.length * 2) capacity <<= 1;
+        this.table = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int h = hash(keys[i]) & mask;
+            while (table[h] != 0) h = (h + 1) & mask;
+            table[h] = i + 1;
+        }
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * 获取键名对应的下标
+     *
+     * @return 下标，不存在时返回 -1
+     */
+    int indexOf(String key) {
+        int mask = table.length - 1;
+        int h = hash(key) & mask;
+        int slot;
+        while ((slot = table[h]) != 0) {
+            if (keys[slot - 1].equals(key)) return slot - 1;
+            h = (h + 1) & mask;
+        }
+        return -1;
+    }
+
+    String key(int index) {
+        return keys[index];
+    }
+
+    String value(int index) {
+        return values[index];
+    }
+
+    /**
+     * 获取指定项之后的注释（只读）
+     *
+     * @param index 项的下标，传入 -1 获取顶部注释
+     * @return 注释
+     */
+    List<String> comments(int index) {
+        if (comments == null) return Collections.emptyList();
+        int from = commentOffsets[index + 1], to = commentOffsets[index + 2];
+        if (from == to) return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(comments).subList(from, to));
+    }
+
+    int commentCount() {
+        return comments != null ? comments.length : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompactSection)) return false;
+        CompactSection that = (CompactSection) o;
+        return Arrays.equals(keys, that.keys) && Arrays.equals(values, that.values)
+                && Arrays.equals(comments, that.comments) && Arrays.equals(commentOffsets, that.commentOffsets);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys) * 31 + Arrays.hashCode(values);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,361 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 表示一个线程安全的 INI 对象
+ * <p>每个区块的内容以不可变快照（{@link FrozenSection}）的形式存放，读取时无需加锁；
+ * 修改时只锁定被修改的区块，以写时复制的方式生成新的区块快照，不同区块的修改可以并发进行。</p>
+ * <p>区块按添加顺序排列。通过 {@link #snapshot()} 可以获取整个 INI 在某一时刻的一致快照（例如用于 {@link IniSerializer} 导出），
+ * 获取快照时不会阻塞读取操作。</p>
+ * <p>由于每次修改都会复制整个区块，此类适合读多写少、区块内容不多的情况（例如运行时可调整的参数）。</p>
+ */
+public class ConcurrentIni {
+    private static final FrozenSection EMPTY = new FrozenSection(new Section());
+
+    private final ConcurrentHashMap<String, Slot> sections = new ConcurrentHashMap<>();
+    private final Slot untitledSection = new Slot(0, EMPTY);
+    private final AtomicLong order = new AtomicLong();
+    /**
+     * Modifications share the read lock, while taking snapshot requires the write lock
+     */
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    /**
+     * 构造一个空的 INI 对象。
+     */
+    public ConcurrentIni() {
+    }
+
+    /**
+     * 以已有的 INI 内容构造对象。
+     *
+     * @param ini INI 对象
+     * @throws NullPointerException 当 {@code ini} 为 {@code null}
+     */
+    public ConcurrentIni(Ini ini) {
+        this(ini.freeze());
+    }
+
+    /**
+     * 以已有的 INI 快照构造对象。
+     *
+     * @param ini INI 快照
+     * @throws NullPointerException 当 {@code ini} 为 {@code null}
+     */
+    public ConcurrentIni(FrozenIni ini) {
+        untitledSection.data = ini.getUntitledSection();
+        for (Map.Entry<String, FrozenSection> kv : ini) {
+            sections.put(kv.getKey(), new Slot(order.incrementAndGet(), kv.getValue()));
+        }
+    }
+
+    /**
+     * 获取此 INI 中某一个区块的当前快照。
+     * <p>如果区块名不存在，则返回 {@code null}。</p>
+     *
+     * @param name 区块名
+     * @return 区块快照
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public FrozenSection get(String name) {
+        Slot slot = sections.get(Objects.requireNonNull(name));
+        return slot != null ? slot.data : null;
+    }
+
+    /**
+     * 获取无标题区块的当前快照。
+     *
+     * @return 无标题区块快照
+     */
+    public FrozenSection getUntitledSection() {
+        return untitledSection.data;
+    }
+
+    /**
+     * 检测此 INI 中是否包含某区块。
+     *
+     * @param name 区块名
+     * @return 包含时返回 true, 不包含返回 false
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public boolean contains(String name) {
+        return sections.containsKey(Objects.requireNonNull(name));
+    }
+
+    /**
+     * 获取区块的总数（不含无标题区块）。
+     *
+     * @return 区块数量
+     */
+    public int count() {
+        return sections.size();
+    }
+
+    /**
+     * 获取所有的区块名。
+     * <p>区块名按添加顺序排列。</p>
+     *
+     * @return 所有的区块名
+     */
+    public List<String> getSectionNames() {
+        List<Map.Entry<String, Slot>> entries = new ArrayList<>(sections.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().order));
+        List<String> names = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Slot> entry : entries) names.add(entry.getKey());
+        return names;
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值。
+     * <p>如果区块和键名都存在则返回对应的值，否则返回 {@code null} 替代。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值或 {@code null}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key) {
+        return getItemValue(name, key, null);
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值。
+     * <p>如果区块和键名都存在则返回对应的值，否则返回 {@code def} 替代。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @param def  当区块名或键名不存在时的替代返回值
+     * @return 值或替代值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key, String def) {
+        FrozenSection section = get(name);
+        Objects.requireNonNull(key);
+        return section != null ? section.get(key, def) : def;
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值，并转为 int 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当区块名/键（Key）不存在，或值无法转换为 {@code int}
+     */
+    public int getItemValueAsInt(String name, String key) {
+        FrozenSection section = get(name);
+        if (section == null) throw new AccessValueException("Section " + name + " not found");
+        return section.getAsInt(key);
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值，并转为 boolean 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当区块名不存在
+     */
+    public boolean getItemValueAsBool(String name, String key) {
+        FrozenSection section = get(name);
+        if (section == null) throw new AccessValueException("Section " + name + " not found");
+        return section.getAsBool(key);
+    }
+
+    /**
+     * 检测此 INI 中是否包含某区块，且区块中包含某项（键值对）。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 存在则返回 {@code true} 否则返回 {@code false}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     */
+    public boolean containsItemValue(String name, String key) {
+        FrozenSection section = get(name);
+        return section != null && section.contains(key);
+    }
+
+    /**
+     * 向 INI 中添加新项（键值对），如果区块中已有相同键名（Key）的项则会覆盖。
+     * <p>如果指定的区块不存在，则先创建再区块中写入。</p>
+     *
+     * @param name  区块名
+     * @param key   键名
+     * @param value 值
+     * @throws NullPointerException 当 {@code name}，{@code key} 或 {@code value} 含有 {@code null}
+     * @see Section#set(String, Object)
+     */
+    public void setItemValue(String name, String key, String value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        update(name, section -> section.set(key, value));
+    }
+
+    /**
+     * 移除 INI 中的指定项（键值对）。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 成功移除返回 true, 否则返回 false
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     */
+    public boolean removeItem(String name, String key) {
+        Objects.requireNonNull(key);
+        Slot slot = sections.get(Objects.requireNonNull(name));
+        if (slot == null) return false;
+        Lock lock = snapshotLock.readLock();
+        lock.lock();
+        try {
+            synchronized (slot) {
+                if (slot.removed || !slot.data.contains(key)) return false;
+                modify(slot, section -> section.remove(key));
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 修改指定区块，如果区块不存在则先创建。
+     * <p>{@code action} 中对区块的所有修改会作为一个整体生效：其他线程只会看到修改前或修改后的区块。
+     * 同一区块的修改依次进行，请不要在 {@code action} 中修改此 INI 的其他区块。</p>
+     *
+     * @param name   区块名
+     * @param action 对区块的修改操作
+     * @throws NullPointerException 当 {@code name} 或 {@code action} 为 {@code null}
+     */
+    public void update(String name, Consumer<Section> action) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(action);
+        Lock lock = snapshotLock.readLock();
+        lock.lock();
+        try {
+            while (true) {
+                Slot slot = sections.computeIfAbsent(name, k -> new Slot(order.incrementAndGet(), EMPTY));
+                synchronized (slot) {
+                    // The slot may be removed before locked, retries with a new one
+                    if (slot.removed) continue;
+                    modify(slot, action);
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 修改无标题区块。
+     *
+     * @param action 对区块的修改操作
+     * @throws NullPointerException 当 {@code action} 为 {@code null}
+     * @see #update(String, Consumer)
+     */
+    public void updateUntitledSection(Consumer<Section> action) {
+        Objects.requireNonNull(action);
+        Lock lock = snapshotLock.readLock();
+        lock.lock();
+        try {
+            synchronized (untitledSection) {
+                modify(untitledSection, action);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 移除某一个区块。
+     *
+     * @param name 区块名
+     * @return 成功移除返回 true, 否则返回 false
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public boolean remove(String name) {
+        Slot slot = sections.get(Objects.requireNonNull(name));
+        if (slot == null) return false;
+        Lock lock = snapshotLock.readLock();
+        lock.lock();
+        try {
+            synchronized (slot) {
+                if (slot.removed) return false;
+                slot.removed = true;
+                return sections.remove(name, slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取整个 INI 在当前时刻的一致快照。
+     * <p>快照中包含了所有在此之前已完成的修改，不会包含只完成了一部分的修改。获取快照时会短暂地等待正在进行的修改完成，
+     * 但不会阻塞读取操作。</p>
+     *
+     * @return INI 快照
+     */
+    public FrozenIni snapshot() {
+        List<Captured> captured = new ArrayList<>(sections.size());
+        FrozenSection untitled;
+        Lock lock = snapshotLock.writeLock();
+        lock.lock();
+        try {
+            untitled = untitledSection.data;
+            for (Map.Entry<String, Slot> entry : sections.entrySet()) {
+                captured.add(new Captured(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        captured.sort(Comparator.comparingLong(c -> c.order));
+        Map<String, FrozenSection> frozen = new LinkedHashMap<>();
+        for (Captured c : captured) {
+            frozen.put(c.name, c.data);
+        }
+        return new FrozenIni(untitled, frozen);
+    }
+
+    /**
+     * Applies modification on a copy of slot data, must be called with slot locked.
+     */
+    private static void modify(Slot slot, Consumer<Section> action) {
+        Section section = slot.data.edit();
+        action.accept(section);
+        slot.data = new FrozenSection(section);
+    }
+
+    private static final class Captured {
+        private final String name;
+        private final long order;
+        private final FrozenSection data;
+
+        Captured(String name, Slot slot) {
+            this.name = name;
+            this.order = slot.order;
+            this.data = slot.data;
+        }
+    }
+
+    private static final class Slot {
+        private final long order;
+        private volatile FrozenSection data;
+        private boolean removed;
+
+        Slot(long order, FrozenSection data) {
+            this.order = order;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.util.*;
+
+/**
+ * 表示一个不可变的 INI 对象（快照）
+ * <p>由 {@link Ini#freeze()} 创建，内容不会再发生变化，可以不加锁地在多个线程间共享。
+ * 如需修改，可调用 {@link #edit()} 获取一个可修改的副本。</p>
+ */
+public final class FrozenIni implements Iterable<Map.Entry<String, FrozenSection>> {
+    private final FrozenSection untitledSection;
+    private final Map<String, FrozenSection> sections;
+
+    FrozenIni(FrozenSection untitledSection, Map<String, FrozenSection> sections) {
+        this.untitledSection = untitledSection;
+        this.sections = Collections.unmodifiableMap(sections);
+    }
+
+    /**
+     * 获取此 INI 中的某一个区块。
+     * <p>如果区块名不存在，则返回 {@code null}。</p>
+     *
+     * @param name 区块名
+     * @return 区块
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public FrozenSection get(String name) {
+        return sections.get(Objects.requireNonNull(name));
+    }
+
+    /**
+     * 获取无标题区块（处于文件头部，没有指定区块名的键值对和数据会被存在这里)。
+     *
+     * @return 无标题区块
+     */
+    public FrozenSection getUntitledSection() {
+        return untitledSection;
+    }
+
+    /**
+     * 获取区块的总数（不含 {@link #getUntitledSection()}）。
+     *
+     * @return 区块数量
+     */
+    public int count() {
+        return sections.size();
+    }
+
+    /**
+     * 检测此 INI 中是否包含某区块。
+     *
+     * @param name 区块名
+     * @return 包含时返回 true, 不包含返回 false
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public boolean contains(String name) {
+        return sections.containsKey(Objects.requireNonNull(name));
+    }
+
+    /**
+     * 获取所有的区块名。
+     * <p>区块名按添加顺序排列。</p>
+     *
+     * @return 所有的区块名
+     */
+    public List<String> getSectionNames() {
+        return new ArrayList<>(sections.keySet());
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值。
+     * <p>如果区块和键名都存在则返回对应的值，否则返回 {@code null} 替代。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值或 {@code null}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key) {
+        return getItemValue(name, key, null);
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值。
+     * <p>如果区块和键名都存在则返回对应的值，否则返回 {@code def} 替代。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @param def  当区块名或键名不存在时的替代返回值
+     * @return 值或替代值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key, String def) {
+        FrozenSection section = get(name);
+        Objects.requireNonNull(key);
+        return section != null ? section.get(key, def) : def;
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值，并转为 int 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当区块名/键（Key）不存在，或值无法转换为 {@code int}
+     */
+    public int getItemValueAsInt(String name, String key) {
+        FrozenSection section = get(name);
+        if (section == null) throw new AccessValueException("Section " + name + " not found");
+        return section.getAsInt(key);
+    }
+
+    /**
+     * 获取此 INI 中指定项（键值对）中的值，并转为 boolean 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当区块名不存在
+     */
+    public boolean getItemValueAsBool(String name, String key) {
+        FrozenSection section = get(name);
+        if (section == null) throw new AccessValueException("Section " + name + " not found");
+        return section.getAsBool(key);
+    }
+
+    /**
+     * 检测此 INI 中是否包含某区块，且区块中包含某项（键值对）。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 存在则返回 {@code true} 否则返回 {@code false}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     */
+    public boolean containsItemValue(String name, String key) {
+        FrozenSection section = get(name);
+        return section != null && section.contains(key);
+    }
+
+    /**
+     * 创建一个可修改的 {@link Ini} 对象，内容与此快照相同。
+     * <p>新对象中的区块与快照共享存储，只有在某个区块首次被修改时才会复制该区块的内容，不影响其他区块。
+     * 之后可以再调用 {@link Ini#freeze()} 生成新的快照，未修改的区块依旧共享存储。</p>
+     *
+     * @return 可修改的 INI 对象
+     */
+    public Ini edit() {
+        Ini ini = new Ini();
+        ini.setUntitledSection(untitledSection.edit());
+        for (Map.Entry<String, FrozenSection> kv : sections.entrySet()) {
+            ini.putSection(kv.getKey(), kv.getValue().edit());
+        }
+        return ini;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, FrozenSection>> iterator() {
+        return sections.entrySet().iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FrozenIni that = (FrozenIni) o;
+        return sections.equals(that.sections) && untitledSection.equals(that.untitledSection);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sections, untitledSection);
+    }
+}
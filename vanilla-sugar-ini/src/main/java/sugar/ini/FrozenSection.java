@@ -0,0 +1,243 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表示 {@link FrozenIni} 中的一个区块（不可变）
+ * <p>提供与 {@link Section} 相同的读取方法，内容不会再发生变化，可以不加锁地在多个线程间共享。</p>
+ */
+public final class FrozenSection implements Iterable<Map.Entry<String, String>> {
+
+    /**
+     * 紧凑模式的区块，只调用读取方法
+     */
+    private final Section section;
+
+    FrozenSection(Section source) {
+        this.section = Section.ofCompact(source.snapshot(), source.getDanglingText());
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）中的值。
+     * <p>如果键名（Key）不存在，则返回 {@code null}。</p>
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     */
+    public String get(String key) {
+        return section.get(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，当键（Key）不存在时返回 {@code def} 替代。
+     *
+     * @param key 键名
+     * @param def 当键名不存在时的替代返回值
+     * @return 值或替代值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     */
+    public String get(String key, String def) {
+        return section.get(key, def);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@code int} 返回。
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code int}
+     */
+    public int getAsInt(String key) {
+        return section.getAsInt(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@code long} 返回。
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code long}
+     */
+    public long getAsLong(String key) {
+        return section.getAsLong(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@code boolean} 返回。
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @see Boolean#parseBoolean(String) 转换方法
+     */
+    public boolean getAsBool(String key) {
+        return section.getAsBool(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@code double} 返回。
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code double}
+     * @see Section#getAsDouble(String)
+     */
+    public double getAsDouble(String key) {
+        return section.getAsDouble(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@link Duration} 返回。
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@link Duration}
+     * @see Section#getAsDuration(String) 支持的格式
+     */
+    public Duration getAsDuration(String key) {
+        return section.getAsDuration(key);
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为枚举值返回。
+     *
+     * @param key  键名
+     * @param type 枚举类型
+     * @param <E>  枚举类型
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 或 {@code type} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值不是枚举常量名
+     * @see Section#getAsEnum(String, Class)
+     */
+    public <E extends Enum<E>> E getAsEnum(String key, Class<E> type) {
+        return section.getAsEnum(key, type);
+    }
+
+    /**
+     * 检测此区块中是否包含某项（键值对）。
+     *
+     * @param key 键名
+     * @return 包含时返回 true, 不包含返回 false
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     */
+    public boolean contains(String key) {
+        return section.contains(key);
+    }
+
+    /**
+     * 获取此区块内项（键值对）的总数。
+     *
+     * @return 项的数量
+     */
+    public int count() {
+        return section.count();
+    }
+
+    /**
+     * 获取此区块内项（键值对）以及注释的总数。
+     *
+     * @return 项的数量
+     */
+    public int countKeyAndComments() {
+        return section.countKeyAndComments();
+    }
+
+    /**
+     * 获取所有项的键名（Key）。
+     * <p>键名（Key）按添加顺序排列。</p>
+     *
+     * @return 所有的键
+     */
+    public List<String> getKeys() {
+        return section.getKeys();
+    }
+
+    /**
+     * 获取指定项（键值对）到上一项（键值对）之间的全部注释。
+     *
+     * @param key 键名
+     * @throws AccessValueException 当键（Key）不存在或为 {@code null}
+     */
+    public List<String> getCommentsBefore(String key) {
+        return section.getCommentsBefore(key);
+    }
+
+    /**
+     * 获取指定项（键值对）到下一项（键值对）之间的全部注释。
+     *
+     * @param key 键名
+     * @throws AccessValueException 当键（Key）不存在或为 {@code null}
+     */
+    public List<String> getCommentsAfter(String key) {
+        return section.getCommentsAfter(key);
+    }
+
+    /**
+     * 获取所有的注释。
+     * <p>注释按添加顺序排列。</p>
+     *
+     * @return 注释
+     */
+    public List<String> getComments() {
+        return section.getComments();
+    }
+
+    /**
+     * 获取区块的顶部文本（非注释文本）。
+     *
+     * @return 顶部文本。如果顶部文本不存在则返回 {@code null}
+     */
+    public String getDanglingText() {
+        return section.getDanglingText();
+    }
+
+    /**
+     * 将区块中项（键值对）生成为一个新 {@link Map}。
+     * <p>键值对按添加顺序排列。</p>
+     *
+     * @return 区块中的项
+     */
+    public Map<String, String> toMap() {
+        return section.toMap();
+    }
+
+    /**
+     * 返回一个可访问此区块内键值对的迭代器（只读）
+     * <p>键值对按添加顺序排列。</p>
+     *
+     * @return 迭代器
+     */
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return section.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return section.equals(((FrozenSection) o).section);
+    }
+
+    @Override
+    public int hashCode() {
+        return section.hashCode();
+    }
+
+    /**
+     * 创建一个共享当前存储的可修改区块，首次修改时才会复制内容
+     */
+    Section edit() {
+        return section.deepClone();
+    }
+}
@@ -10,6 +10,18 @@ import java.util.*;
 public class Ini implements Iterable<Ini.IniEntry> {
     private final Map<String, Section> sections = new LinkedHashMap<>();
     private Section defaultSection = new Section();
+    /**
+     * 最近一次读取或增量保存时各区块在文件中的位置，参考 {@link IniReaderWriter#saveIncremental(Ini, String)}
+     */
+    private IniFileLayout layout;
+    /**
+     * 尚未解析的区块，参考 {@link IniDeserializer#readLazily(java.nio.channels.FileChannel, java.nio.charset.Charset)}
+     */
+    private LazySections lazySections;
+    /**
+     * 区块的增加、移除、重命名的次数，参考 {@link IniKey}
+     */
+    private int sectionModCount;
 
     /**
      * 获取此 INI 中的某一个区块。
@@ -20,7 +32,7 @@ public class Ini implements Iterable<Ini.IniEntry> {
      * @throws NullPointerException 当 {@code name} 为 {@code null}
      */
     public Section get(String name) {
-        return sections.get(Objects.requireNonNull(name));
+        return loaded(sections.get(Objects.requireNonNull(name)));
     }
 
     /**
@@ -40,7 +52,13 @@ public class Ini implements Iterable<Ini.IniEntry> {
      * @throws NullPointerException 当 {@code name} 为 {@code null}
      */
     public Section getOrAdd(String name) {
-        return sections.computeIfAbsent(Objects.requireNonNull(name), k->new Section());
+        Section section = sections.get(Objects.requireNonNull(name));
+        if (section == null) {
+            section = new Section();
+            sections.put(name, section);
+            sectionModCount++;
+        }
+        return loaded(section);
     }
 
     /**
@@ -76,7 +94,11 @@ public class Ini implements Iterable<Ini.IniEntry> {
      * @throws NullPointerException 当 {@code name} 为 {@code null}
      */
     public boolean remove(String name) {
-        return sections.remove(Objects.requireNonNull(name)) != null;
+        Section section = sections.remove(Objects.requireNonNull(name));
+        if (section == null) return false;
+        if (lazySections != null) lazySections.discard(section);
+        sectionModCount++;
+        return true;
     }
 
     /**
@@ -92,7 +114,9 @@ public class Ini implements Iterable<Ini.IniEntry> {
         if (name.equals(newName)) return false;
         Section section = sections.remove(name);
         if (section != null) {
-            sections.put(newName, section);
+            Section replaced = sections.put(newName, section);
+            if (replaced != null && lazySections != null) lazySections.discard(replaced);
+            sectionModCount++;
             return true;
         }
         return false;
@@ -104,6 +128,7 @@ public class Ini implements Iterable<Ini.IniEntry> {
      * @return 当前对象的副本
      */
     public Ini deepClone() {
+        loadAll();
         Ini ini = new Ini();
         ini.defaultSection = this.defaultSection.deepClone();
         for (Map.Entry<String, Section> kv : this.sections.entrySet()) {
@@ -112,6 +137,23 @@ public class Ini implements Iterable<Ini.IniEntry> {
         return ini;
     }
 
+    /**
+     * 创建一个当前 INI 对象的不可变快照。
+     * <p>快照创建后不再受此 INI 对象修改的影响，可以不加锁地在多个线程间共享。
+     * 已经是紧凑模式的区块（参考 {@link IniDeserializer#setCompactSections(boolean)}）会直接共享存储，不会复制内容。</p>
+     *
+     * @return 不可变快照
+     * @see FrozenIni#edit()
+     */
+    public FrozenIni freeze() {
+        loadAll();
+        Map<String, FrozenSection> frozen = new LinkedHashMap<>();
+        for (Map.Entry<String, Section> kv : this.sections.entrySet()) {
+            frozen.put(kv.getKey(), new FrozenSection(kv.getValue()));
+        }
+        return new FrozenIni(new FrozenSection(defaultSection), frozen);
+    }
+
     /**
      * 清空当前 INI 对象的所有内容，包含默认区块。
      */
@@ -130,6 +172,8 @@ public class Ini implements Iterable<Ini.IniEntry> {
         }
         sections.forEach((k, v) -> v.clear());
         sections.clear();
+        lazySections = null;
+        sectionModCount++;
     }
 
     /**
@@ -155,11 +199,14 @@ public class Ini implements Iterable<Ini.IniEntry> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Ini that = (Ini) o;
+        loadAll();
+        that.loadAll();
         return Objects.equals(sections, that.sections) && Objects.equals(defaultSection, that.defaultSection);
     }
 
     @Override
     public int hashCode() {
+        loadAll();
         return Objects.hash(sections, defaultSection);
     }
 // region Quick Access
@@ -247,14 +294,86 @@ public class Ini implements Iterable<Ini.IniEntry> {
         return section != null && section.contains(key);
     }
 
+    /**
+     * 创建一个访问指定项（键值对）的 {@link IniKey}，以指定类型读写值。
+     * <p>{@link IniKey} 会记住区块和项的位置，在区块和项没有增加、移除或重命名时，读取值不需要再通过名称查找。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @param type 值的类型，参考 {@link IniKey} 支持的类型
+     * @param <T>  值的类型
+     * @return IniKey
+     * @throws NullPointerException     当参数中含有 {@code null}
+     * @throws IllegalArgumentException 当不支持 {@code type} 类型
+     */
+    public <T> IniKey<T> bind(String name, String key, Class<T> type) {
+        return new IniKey<>(this, name, key, type);
+    }
+
     // endregion Quick Access
 
+    // region Inner Access
+
+    /**
+     * 直接放入一个区块，如果已有同名区块则替换
+     */
+    void putSection(String name, Section section) {
+        sections.put(name, section);
+        sectionModCount++;
+    }
+
+    void setUntitledSection(Section section) {
+        this.defaultSection = section;
+    }
+
+    IniFileLayout getLayout() {
+        return layout;
+    }
+
+    void setLayout(IniFileLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * 获取区块的增加、移除、重命名的次数，次数不变时通过区块名获取到的区块不变
+     */
+    int sectionModCount() {
+        return sectionModCount;
+    }
+
+    void setLazySections(LazySections lazySections) {
+        this.lazySections = lazySections;
+    }
+
+    /**
+     * 解析所有尚未解析的区块
+     */
+    void loadAll() {
+        if (lazySections == null) return;
+        for (Section section : sections.values()) loaded(section);
+    }
+
+    /**
+     * 如果区块尚未解析，则先解析其内容
+     */
+    private Section loaded(Section section) {
+        LazySections lazy = lazySections;
+        if (lazy != null && section != null) {
+            lazy.load(this, section);
+            // Releases the mapped content after all sections are parsed
+            if (lazy.isEmpty()) lazySections = null;
+        }
+        return section;
+    }
+
+    // endregion Inner Access
+
     @Override
     public Iterator<IniEntry> iterator() {
         return new Itr(sections.entrySet().iterator());
     }
 
-    private static class Itr implements Iterator<IniEntry> {
+    private class Itr implements Iterator<IniEntry> {
         private final Iterator<Map.Entry<String, Section>> iterator;
 
         Itr(Iterator<Map.Entry<String,Section>> iterator) {
@@ -268,7 +387,9 @@ public class Ini implements Iterable<Ini.IniEntry> {
 
         @Override
         public IniEntry next() {
-            return new IniEntry(iterator.next());
+            Map.Entry<String, Section> entry = iterator.next();
+            loaded(entry.getValue());
+            return new IniEntry(entry);
         }
     }
 
@@ -0,0 +1,429 @@
+package sugar.ini;
+
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 将 INI 编码为紧凑的二进制格式，以及从二进制格式中读取 INI
+ * <p>二进制格式中所有的字符串（区块名、键、值、注释）去重后存放在字符串表中，区块和项只记录字符串的下标，
+ * 读取时整块读取数组，不需要逐行解析。注释存放在可选的独立数据块中（参考 {@link #setIncludeComments(boolean)}）。
+ * 读取出的区块为紧凑模式（参考 {@link IniDeserializer#setCompactSections(boolean)}）。</p>
+ * <p>二进制格式适合作为文本 INI 文件的缓存（参考 {@link #loadCached(String, String, Charset)}），文本文件仍然是内容的来源。</p>
+ */
+public class IniBinaryCodec {
+    private static final int MAGIC = 0x494e4942; // "INIB"
+    private static final byte VERSION = 1;
+    private static final int FLAG_COMMENTS = 1;
+    private static final int FLAG_SOURCE = 2;
+    private static final int HASH_LENGTH = 32;
+
+    private boolean includeComments = true;
+    private IniDeserializer deserializer = new IniDeserializer();
+
+    /**
+     * 获取编码时是否包含注释
+     *
+     * @return 是否包含注释
+     */
+    public boolean isIncludeComments() {
+        return includeComments;
+    }
+
+    /**
+     * 设置编码时是否包含注释（默认为 true）。不包含注释时读取速度更快，占用空间更少。
+     *
+     * @param includeComments 是否包含注释
+     * @return 当前对象（便于链式调用）
+     */
+    public IniBinaryCodec setIncludeComments(boolean includeComments) {
+        this.includeComments = includeComments;
+        return this;
+    }
+
+    /**
+     * 获取 {@link #loadCached(String, String, Charset)} 解析文本文件时使用的 {@link IniDeserializer}
+     *
+     * @return IniDeserializer
+     */
+    public IniDeserializer getDeserializer() {
+        return deserializer;
+    }
+
+    /**
+     * 设置 {@link #loadCached(String, String, Charset)} 解析文本文件时使用的 {@link IniDeserializer}（默认为 {@code new IniDeserializer()}）
+     *
+     * @param deserializer IniDeserializer
+     * @return 当前对象（便于链式调用）
+     */
+    public IniBinaryCodec setDeserializer(IniDeserializer deserializer) {
+        this.deserializer = Objects.requireNonNull(deserializer);
+        return this;
+    }
+
+    /**
+     * 将 INI 编码为二进制格式。
+     *
+     * @param ini INI 对象
+     * @return 二进制内容
+     * @throws NullPointerException 当 {@code ini} 为 {@code null}
+     */
+    public byte[] encode(Ini ini) {
+        return encode(ini, null);
+    }
+
+    /**
+     * 从二进制内容中读取 INI。
+     *
+     * @param bytes 二进制内容
+     * @return INI 对象
+     * @throws NullPointerException 当 {@code bytes} 为 {@code null}
+     * @throws ReadWriteException   当内容不是有效的二进制格式
+     */
+    public Ini decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int flags = readHeader(buffer);
+        if ((flags & FLAG_SOURCE) != 0) {
+            // Skips source stamp
+            ((Buffer) buffer).position(buffer.position() + 8 + 8 + 4 + HASH_LENGTH);
+        }
+        return decodeBody(buffer, flags);
+    }
+
+    /**
+     * 读取 INI 文件，并以二进制缓存加速读取。
+     * <p>二进制缓存中记录了文本文件的修改时间、大小、内容的摘要以及解析选项。修改时间和大小一致时直接读取缓存；
+     * 否则比较内容的摘要，不一致时重新解析文本文件并更新缓存。缓存无法写入时（例如没有权限）不影响读取结果。</p>
+     *
+     * @param sourcePath 文本 INI 文件的路径
+     * @param cachePath  二进制缓存文件的路径
+     * @param charset    文本文件的字符集
+     * @return INI 对象
+     * @throws NullPointerException 当参数中含有 {@code null}
+     * @throws ReadWriteException   当读取文本文件时发生IO异常
+     */
+    public Ini loadCached(String sourcePath, String cachePath, Charset charset) {
+        Objects.requireNonNull(charset);
+        Path source = Paths.get(sourcePath);
+        Path cache = Paths.get(cachePath);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            Stamp current = new Stamp(flags(true), attributes.lastModifiedTime().toMillis(), attributes.size(),
+                    deserializer.optionsHash() * 31 + charset.name().hashCode(), null);
+            ByteBuffer cached = readCache(cache);
+            Stamp stamp = cached != null ? readStamp(cached) : null;
+            // A cache encoded with a different comment option is treated as stale
+            if (stamp != null && stamp.flags == current.flags && stamp.modified == current.modified
+                    && stamp.size == current.size && stamp.options == current.options) {
+                Ini ini = decodeCached(cached, stamp.flags);
+                if (ini != null) return ini;
+                stamp = null;
+            }
+            byte[] content = Files.readAllBytes(source);
+            current = new Stamp(current.flags, current.modified, content.length, current.options, hash(content));
+            Ini ini = null;
+            if (stamp != null && stamp.flags == current.flags && stamp.size == current.size
+                    && stamp.options == current.options && Arrays.equals(stamp.hash, current.hash)) {
+                // Content unchanged (e.g. only touched), refreshes the stamp
+                ini = decodeCached(cached, stamp.flags);
+            }
+            if (ini == null) ini = deserializer.read(new ByteArrayInputStream(content), charset);
+            try {
+                IniFileSaver.writeAtomically(encode(ini, current), cache);
+            } catch (IOException ignored) {
+                // Cache is optional
+            }
+            return ini;
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to load file", e);
+        }
+    }
+
+    /**
+     * Reads the cache, returns null if it is missing or can not be read.
+     */
+    private static ByteBuffer readCache(Path cache) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(cache));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the body of cache, returns null if it is broken.
+     */
+    private static Ini decodeCached(ByteBuffer buffer, int flags) {
+        try {
+            return decodeBody(buffer, flags);
+        } catch (ReadWriteException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the stamp and leaves the buffer at the body, returns null if cache is invalid or has no stamp.
+     */
+    private static Stamp readStamp(ByteBuffer buffer) {
+        try {
+            int flags = readHeader(buffer);
+            if ((flags & FLAG_SOURCE) == 0) return null;
+            long modified = buffer.getLong();
+            long size = buffer.getLong();
+            int options = buffer.getInt();
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            return new Stamp(flags, modified, size, options, hash);
+        } catch (ReadWriteException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private byte[] encode(Ini ini, Stamp stamp) {
+        Objects.requireNonNull(ini);
+        List<Section> sections = new ArrayList<>(ini.count() + 1);
+        List<String> names = new ArrayList<>(ini.count());
+        sections.add(ini.getUntitledSection());
+        for (Ini.IniEntry entry : ini) {
+            names.add(entry.getKey());
+            sections.add(entry.getValue());
+        }
+        StringTable strings = new StringTable();
+        int[] nameIndexes = new int[names.size()];
+        for (int i = 0; i < nameIndexes.length; i++) nameIndexes[i] = strings.indexOf(names.get(i));
+        // Section records and comment groups, as int arrays
+        IntArray records = new IntArray();
+        IntArray comments = new IntArray();
+        int[] recordOffsets = new int[sections.size() + 1];
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            recordOffsets[i] = records.size;
+            String danglingText = section.getDanglingText();
+            records.add(danglingText != null ? strings.indexOf(danglingText) : -1);
+            int countIndex = records.size;
+            records.add(0);
+            int[] groupStart = {comments.size};
+            comments.add(0);
+            section.forEachKeysAndComments((key, value, comment) -> {
+                if (key != null) {
+                    records.add(strings.indexOf(key));
+                    records.add(strings.indexOf(value));
+                    records.data[countIndex]++;
+                    groupStart[0] = comments.size;
+                    comments.add(0);
+                } else {
+                    comments.add(strings.indexOf(comment));
+                    comments.data[groupStart[0]]++;
+                }
+            });
+        }
+        recordOffsets[sections.size()] = records.size;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeByte(flags(stamp != null));
+            if (stamp != null) {
+                output.writeLong(stamp.modified);
+                output.writeLong(stamp.size);
+                output.writeInt(stamp.options);
+                output.write(stamp.hash);
+            }
+            strings.write(output);
+            output.writeInt(names.size());
+            writeInts(output, nameIndexes, nameIndexes.length);
+            writeInts(output, recordOffsets, recordOffsets.length);
+            writeInts(output, records.data, records.size);
+            if (includeComments) {
+                output.writeInt(comments.size);
+                writeInts(output, comments.data, comments.size);
+            }
+        } catch (IOException e) {
+            // Should never happen with byte array
+            throw new ReadWriteException("Error occurred when encoding content", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int readHeader(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new ReadWriteException("Not a valid binary INI content");
+            }
+            return buffer.get();
+        } catch (BufferUnderflowException e) {
+            throw new ReadWriteException("Not a valid binary INI content", e);
+        }
+    }
+
+    private static Ini decodeBody(ByteBuffer buffer, int flags) {
+        try {
+            String[] strings = StringTable.read(buffer);
+            int count = buffer.getInt();
+            int[] nameIndexes = readInts(buffer, count);
+            int[] recordOffsets = readInts(buffer, count + 2);
+            int[] records = readInts(buffer, recordOffsets[count + 1]);
+            int[] comments = (flags & FLAG_COMMENTS) != 0 ? readInts(buffer, buffer.getInt()) : null;
+            Ini ini = new Ini();
+            int commentPos = 0;
+            for (int i = 0; i <= count; i++) {
+                int pos = recordOffsets[i];
+                int dangling = records[pos++];
+                int size = records[pos++];
+                String[] keys = new String[size];
+                String[] values = new String[size];
+                for (int j = 0; j < size; j++) {
+                    keys[j] = strings[records[pos++]];
+                    values[j] = strings[records[pos++]];
+                }
+                String[] sectionComments = null;
+                int[] commentOffsets = null;
+                if (comments != null) {
+                    // Groups: top comments, then comments after each item
+                    commentOffsets = new int[size + 2];
+                    int total = 0;
+                    int scan = commentPos;
+                    for (int g = 0; g <= size; g++) {
+                        int n = comments[scan];
+                        scan += n + 1;
+                        total += n;
+                        commentOffsets[g + 1] = total;
+                    }
+                    if (total > 0) {
+                        sectionComments = new String[total];
+                        int k = 0;
+                        for (int g = 0; g <= size; g++) {
+                            int n = comments[commentPos++];
+                            for (int c = 0; c < n; c++) sectionComments[k++] = strings[comments[commentPos++]];
+                        }
+                    }
+                    commentPos = scan;
+                }
+                if (sectionComments == null) commentOffsets = null;
+                Section section = Section.ofCompact(new CompactSection(keys, values, sectionComments, commentOffsets),
+                        dangling != -1 ? strings[dangling] : null);
+                if (i == 0) ini.setUntitledSection(section);
+                else ini.putSection(strings[nameIndexes[i - 1]], section);
+            }
+            return ini;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | IllegalArgumentException e) {
+            throw new ReadWriteException("Not a valid binary INI content", e);
+        }
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values, int length) throws IOException {
+        for (int i = 0; i < length; i++) output.writeInt(values[i]);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(values);
+        // Casts to Buffer to stay compatible with Java 8 runtime
+        ((Buffer) buffer).position(buffer.position() + length * 4);
+        return values;
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int flags(boolean source) {
+        return (includeComments ? FLAG_COMMENTS : 0) | (source ? FLAG_SOURCE : 0);
+    }
+
+    private static final class Stamp {
+        /**
+         * 二进制内容的标志
+         */
+        private final int flags;
+        private final long modified;
+        private final long size;
+        private final int options;
+        private final byte[] hash;
+
+        Stamp(int flags, long modified, long size, int options, byte[] hash) {
+            this.flags = flags;
+            this.modified = modified;
+            this.size = size;
+            this.options = options;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * 去重的字符串表：字符串数量、每个字符串的字节偏移量（数量 + 1 个），以及所有字符串的 UTF-8 内容
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(String s) {
+            Integer index = indexes.get(s);
+            if (index == null) {
+                index = strings.size();
+                indexes.put(s, index);
+                strings.add(s);
+            }
+            return index;
+        }
+
+        void write(DataOutputStream output) throws IOException {
+            int[] offsets = new int[strings.size() + 1];
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (int i = 0; i < strings.size(); i++) {
+                byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+                content.write(bytes, 0, bytes.length);
+                offsets[i + 1] = content.size();
+            }
+            output.writeInt(strings.size());
+            writeInts(output, offsets, offsets.length);
+            content.writeTo(output);
+        }
+
+        static String[] read(ByteBuffer buffer) {
+            int count = buffer.getInt();
+            int[] offsets = readInts(buffer, count + 1);
+            byte[] content = new byte[offsets[count]];
+            buffer.get(content);
+            String[] strings = new String[count];
+            for (int i = 0; i < count; i++) {
+                strings[i] = new String(content, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+            }
+            return strings;
+        }
+    }
+
+    private static final class IntArray {
+        private int[] data = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package sugar.ini;
+
+import sugar.core.simplification.Convert;
+import sugar.ini.exception.AccessValueException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 在区块与普通 Java 对象（POJO）之间复制数据
+ * <p>对象中每个非静态、非 {@code transient} 的字段（包括从父类继承的字段）对应区块中与字段同名的项。
+ * 支持的字段类型：{@link String}、基本类型及其包装类型、{@link Duration} 和枚举类型，其他类型的字段会被忽略，
+ * {@code final} 字段只会被写入区块，不会被填充。
+ * 数值和布尔类型按照 {@link Convert} 的规则转换，{@link Duration} 支持的格式参考 {@link Section#getAsDuration(String)}。</p>
+ * <p>每个类的字段信息只会在首次使用时解析一次，之后通过缓存的 {@link MethodHandle} 读写字段。</p>
+ */
+public final class IniBinder {
+    private static final ClassValue<BeanInfo> BEANS = new ClassValue<BeanInfo>() {
+        @Override
+        protected BeanInfo computeValue(Class<?> type) {
+            return new BeanInfo(type);
+        }
+    };
+
+    private IniBinder() {
+    }
+
+    /**
+     * 创建一个对象，并以区块中的内容填充字段。
+     * <p>对象的类需要有无参构造器。区块中不存在的项对应的字段保持初始值。</p>
+     *
+     * @param section 区块
+     * @param type    对象的类
+     * @param <T>     对象的类型
+     * @return 对象
+     * @throws NullPointerException     当参数中含有 {@code null}
+     * @throws IllegalArgumentException 当类没有无参构造器
+     * @throws AccessValueException     当值无法转换为字段的类型
+     */
+    public static <T> T read(Section section, Class<T> type) {
+        Objects.requireNonNull(section);
+        T target = type.cast(BEANS.get(type).newInstance());
+        readInto(section, target);
+        return target;
+    }
+
+    /**
+     * 以区块中的内容填充已有对象的字段。
+     * <p>区块中不存在的项对应的字段保持不变。</p>
+     *
+     * @param section 区块
+     * @param target  对象
+     * @param <T>     对象的类型
+     * @return 传入的对象
+     * @throws NullPointerException 当参数中含有 {@code null}
+     * @throws AccessValueException 当值无法转换为字段的类型
+     */
+    public static <T> T readInto(Section section, T target) {
+        Objects.requireNonNull(section);
+        for (Property property : BEANS.get(target.getClass()).properties) {
+            String value = section.get(property.name);
+            if (value == null) continue;
+            Object converted = property.converter.apply(value);
+            if (converted == null) {
+                throw new AccessValueException("Unable to parse value of key \"" + property.name + "\" to "
+                        + property.typeName);
+            }
+            property.set(target, converted);
+        }
+        return target;
+    }
+
+    /**
+     * 将对象的字段写入区块，值为 {@code null} 的字段会被跳过。
+     * <p>字段的值会调用 {@link Object#toString()} 转为 {@link String} 类型（枚举值写入常量名）。</p>
+     *
+     * @param source  对象
+     * @param section 区块
+     * @throws NullPointerException 当参数中含有 {@code null}
+     */
+    public static void write(Object source, Section section) {
+        Objects.requireNonNull(section);
+        for (Property property : BEANS.get(source.getClass()).properties) {
+            Object value = property.get(source);
+            if (value == null) continue;
+            section.set(property.name, value instanceof Enum ? ((Enum<?>) value).name() : value);
+        }
+    }
+
+    /**
+     * 一个类的字段信息
+     */
+    private static final class BeanInfo {
+        private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+        private final Class<?> type;
+        private final List<Property> properties = new ArrayList<>();
+        private final MethodHandle constructor;
+
+        BeanInfo(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            // Fields of super classes come first
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) hierarchy.add(0, c);
+            for (Class<?> c : hierarchy) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                    Function<String, Object> converter = converterOf(field.getType());
+                    if (converter == null) continue;
+                    field.setAccessible(true);
+                    try {
+                        properties.add(new Property(field, converter, lookup));
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalArgumentException("Unable to access field " + field, e);
+                    }
+                }
+            }
+            this.constructor = findConstructor(type, lookup);
+        }
+
+        Object newInstance() {
+            if (constructor == null) {
+                throw new IllegalArgumentException("No accessible no-arg constructor in " + type.getName());
+            }
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to create instance of " + type.getName(), e);
+            }
+        }
+
+        private static MethodHandle findConstructor(Class<?> type, MethodHandles.Lookup lookup) {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) return null;
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 对象中的一个字段
+     */
+    private static final class Property {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final String name;
+        private final String typeName;
+        private final Function<String, Object> converter;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        Property(Field field, Function<String, Object> converter, MethodHandles.Lookup lookup)
+                throws IllegalAccessException {
+            this.name = field.getName();
+            this.typeName = field.getType().getSimpleName();
+            this.converter = converter;
+            this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = Modifier.isFinal(field.getModifiers()) ? null
+                    : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        }
+
+        Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            if (setter == null) return;
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Return the converter of field type, which returns null if the value can not be converted,
+     * or null if the type is not supported.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<String, Object> converterOf(Class<?> type) {
+        if (type == String.class) return value -> value;
+        if (type == int.class || type == Integer.class) {
+            return value -> {
+                Long l = toIntegral(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                return l != null ? l.intValue() : null;
+            };
+        }
+        if (type == long.class || type == Long.class) return value -> toIntegral(value, Long.MIN_VALUE, Long.MAX_VALUE);
+        if (type == short.class || type == Short.class) {
+            return value -> {
+                Long l = toIntegral(value, Short.MIN_VALUE, Short.MAX_VALUE);
+                return l != null ? l.shortValue() : null;
+            };
+        }
+        if (type == byte.class || type == Byte.class) {
+            return value -> {
+                Long l = toIntegral(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                return l != null ? l.byteValue() : null;
+            };
+        }
+        if (type == double.class || type == Double.class) return value -> Convert.toDouble(value, null);
+        if (type == float.class || type == Float.class) return value -> Convert.toFloat(value, null);
+        if (type == boolean.class || type == Boolean.class) return value -> Convert.toBoolean(value, null);
+        if (type == char.class || type == Character.class) return value -> Convert.toChar(value, null);
+        if (type == Duration.class) {
+            return value -> {
+                try {
+                    return Section.parseDuration(value);
+                } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    return null;
+                }
+            };
+        }
+        if (type.isEnum()) {
+            return value -> {
+                try {
+                    return Section.parseEnum(value, (Class) type);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Parse value as an integer in [min, max] exactly, returns null if it has a fraction, overflows,
+     * or may have lost precision.
+     */
+    private static Long toIntegral(String value, long min, long max) {
+        long l;
+        try {
+            l = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            // Non-integral text, e.g. "1.0" or "1e3"
+            Double d = Convert.toDouble(value, null);
+            // Doubles are exact integers only below 2^53
+            if (d == null || d != Math.rint(d) || Math.abs(d) >= 0x1p53) return null;
+            l = d.longValue();
+        }
+        return l >= min && l <= max ? l : null;
+    }
+}
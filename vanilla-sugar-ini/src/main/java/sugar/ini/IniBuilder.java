@@ -0,0 +1,68 @@
+package sugar.ini;
+
+import java.util.Collections;
+
+/**
+ * 根据解析事件生成 {@link Ini} 对象
+ * <p>重复出现的区块会合并到同一个区块中。</p>
+ */
+class IniBuilder implements IniHandler {
+    private final Ini ini;
+    private final boolean compactSections;
+    /**
+     * 用于去重字符串的字符串池，没有设置时为 {@code null}
+     */
+    private final StringPool pool;
+    private Section section;
+
+    IniBuilder(IniDeserializer options) {
+        this(new Ini(), options);
+    }
+
+    IniBuilder(Ini ini, IniDeserializer options) {
+        this(ini, ini.getUntitledSection(), options);
+    }
+
+    /**
+     * 从指定的区块开始写入内容
+     */
+    IniBuilder(Ini ini, Section section, IniDeserializer options) {
+        this.ini = ini;
+        this.compactSections = options.isCompactSections();
+        this.pool = options.getStringPool();
+        this.section = section;
+    }
+
+    /**
+     * 结束解析并返回生成的 INI 对象
+     */
+    Ini finish() {
+        if (compactSections) section.compact();
+        return ini;
+    }
+
+    @Override
+    public void onSection(String name) {
+        if (compactSections) section.compact();
+        section = ini.getOrAdd(intern(name));
+    }
+
+    @Override
+    public void onKeyValue(String key, String value) {
+        section.set(intern(key), intern(value));
+    }
+
+    @Override
+    public void onComment(String comment) {
+        section.addComments(Collections.singletonList(intern(comment)));
+    }
+
+    @Override
+    public void onDanglingText(String text) {
+        section.setDanglingText(intern(text));
+    }
+
+    private String intern(String s) {
+        return pool != null ? pool.intern(s) : s;
+    }
+}
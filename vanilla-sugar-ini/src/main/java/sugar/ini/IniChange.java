@@ -0,0 +1,141 @@
+package sugar.ini;
+
+import java.util.Objects;
+
+/**
+ * 表示 INI 内容的一处变化
+ */
+public final class IniChange {
+
+    /**
+     * 变化的类型
+     */
+    public enum Type {
+        /**
+         * 新增了区块（区块中的每一项会以 {@link #KEY_ADDED} 单独列出）
+         */
+        SECTION_ADDED,
+        /**
+         * 移除了区块
+         */
+        SECTION_REMOVED,
+        /**
+         * 新增了项（键值对）
+         */
+        KEY_ADDED,
+        /**
+         * 移除了项（键值对）
+         */
+        KEY_REMOVED,
+        /**
+         * 项（键值对）的值发生了变化
+         */
+        KEY_CHANGED,
+        /**
+         * 区块被改名（区块内容不变），新的区块名参考 {@link #getNewName()}
+         */
+        SECTION_RENAMED,
+        /**
+         * 项（键值对）被改名（值不变），新的键名参考 {@link #getNewName()}
+         */
+        KEY_RENAMED
+    }
+
+    private final Type type;
+    private final String section;
+    private final String key;
+    private final String oldValue;
+    private final String newValue;
+    private final String newName;
+
+    IniChange(Type type, String section, String key, String oldValue, String newValue) {
+        this(type, section, key, oldValue, newValue, null);
+    }
+
+    IniChange(Type type, String section, String key, String oldValue, String newValue, String newName) {
+        this.type = type;
+        this.section = section;
+        this.key = key;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.newName = newName;
+    }
+
+    /**
+     * 获取变化的类型
+     *
+     * @return 类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 获取发生变化的区块名
+     *
+     * @return 区块名，无标题区块为 {@code null}
+     */
+    public String getSection() {
+        return section;
+    }
+
+    /**
+     * 获取发生变化的键名
+     *
+     * @return 键名，区块的变化为 {@code null}
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 获取变化前的值
+     *
+     * @return 变化前的值，新增项或区块的变化为 {@code null}
+     */
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * 获取变化后的值
+     *
+     * @return 变化后的值，移除项或区块的变化为 {@code null}
+     */
+    public String getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * 获取改名后的区块名或键名
+     *
+     * @return 新的名字，改名以外的变化为 {@code null}
+     */
+    public String getNewName() {
+        return newName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IniChange change = (IniChange) o;
+        return type == change.type && Objects.equals(section, change.section) && Objects.equals(key, change.key)
+                && Objects.equals(oldValue, change.oldValue) && Objects.equals(newValue, change.newValue)
+                && Objects.equals(newName, change.newName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, section, key, oldValue, newValue, newName);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder().append(type).append(" [").append(section).append(']');
+        if (key != null) builder.append(' ').append(key);
+        if (oldValue != null || newValue != null) builder.append(": ").append(oldValue).append(" -> ").append(newValue);
+        if (newName != null) builder.append(" => ").append(newName);
+        return builder.toString();
+    }
+}
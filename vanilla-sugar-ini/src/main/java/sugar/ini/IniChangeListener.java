@@ -0,0 +1,20 @@
+package sugar.ini;
+
+import java.util.List;
+
+/**
+ * 监听 INI 文件内容的变化
+ *
+ * @see IniWatcher#addListener(IniChangeListener)
+ */
+@FunctionalInterface
+public interface IniChangeListener {
+
+    /**
+     * 文件内容发生变化后调用。
+     *
+     * @param changes 发生的变化（不会为空）
+     * @param current 变化后的 INI 内容
+     */
+    void onChange(List<IniChange> changes, FrozenIni current);
+}
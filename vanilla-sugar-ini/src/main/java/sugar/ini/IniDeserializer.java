@@ -3,8 +3,12 @@ package sugar.ini;
 import sugar.ini.exception.ReadWriteException;
 
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 解析和读取 INI 文件数据
@@ -35,6 +39,9 @@ public class IniDeserializer {
     private boolean trimKey = true;
     private boolean trimValue = true;
     private boolean trimComment = true;
+    private boolean compactSections = false;
+    private StringPool stringPool = null;
+    private IniDialect dialect = new IniDialect();
 
     /**
      * 获取解析 INI 时如何处理区块顶部非注释文本（默认为 {@link DanglingTextOptions#KEEP}）
@@ -174,6 +181,72 @@ public class IniDeserializer {
         return this;
     }
 
+    /**
+     * 获取是否以紧凑模式存储读取出的区块（默认 {@code false}）
+     *
+     * @return 值
+     */
+    public boolean isCompactSections() {
+        return compactSections;
+    }
+
+    /**
+     * 设置是否以紧凑模式存储读取出的区块
+     * <p>紧凑模式下区块内的键值对和注释存放在几个数组中，内存占用更少，适合读取后很少修改的情况。
+     * 区块首次被修改时会自动转换回普通模式（仅影响被修改的区块）。</p>
+     *
+     * @param compactSections 设置为 true 使用紧凑模式，false 使用普通模式
+     * @return 当前对象 （便于链式调用）
+     */
+    public IniDeserializer setCompactSections(boolean compactSections) {
+        this.compactSections = compactSections;
+        return this;
+    }
+
+    /**
+     * 获取用于去重字符串的字符串池（默认为 {@code null}，即不去重）
+     *
+     * @return 字符串池
+     */
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * 设置用于去重字符串的字符串池
+     * <p>设置后，读取到的区块名、键名、值、注释等字符串会先经过字符串池，内容相同的字符串共用同一个对象。
+     * 同一个字符串池可以在多个 {@link IniDeserializer} 和多次读取间共享，适合读取大量内容相似的文件。</p>
+     *
+     * @param stringPool 字符串池，传入 {@code null} 表示不去重
+     * @return 当前对象 （便于链式调用）
+     */
+    public IniDeserializer setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+        return this;
+    }
+
+    /**
+     * 获取解析时使用的方言（默认为 {@code new IniDialect()}，只以 {@code =} 分隔键和值）
+     *
+     * @return 方言
+     */
+    public IniDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * 设置解析时使用的方言，例如 {@link IniDialect#gitConfig()}
+     * <p>方言中启用了引号、转义、续行或行内注释时，{@link #read(FileChannel, Charset)}、{@link #readParallel(FileChannel, Charset)}、
+     * {@link #readLazily(FileChannel, Charset)} 会退回到按字符解析。</p>
+     *
+     * @param dialect 方言
+     * @return 当前对象 （便于链式调用）
+     */
+    public IniDeserializer setDialect(IniDialect dialect) {
+        this.dialect = Objects.requireNonNull(dialect);
+        return this;
+    }
+
     /**
      * 从 {@link Reader} 中读取 INI 内容
      *
@@ -182,13 +255,9 @@ public class IniDeserializer {
      * @throws ReadWriteException   如果读取时发生IO异常
      */
     public Ini read(Reader reader) {
-        Ini ini = new Ini();
-        try (BufferedReader br = new BufferedReader(reader)) {
-            loadToIni(br, ini);
-        } catch (IOException e) {
-            throw new ReadWriteException("Error occurred when deserializing content", e);
-        }
-        return ini;
+        IniBuilder builder = new IniBuilder(this);
+        read(reader, builder);
+        return builder.finish();
     }
 
     /**
@@ -203,80 +272,213 @@ public class IniDeserializer {
         return read(new InputStreamReader(stream, charset));
     }
 
-    private void loadToIni(BufferedReader br, Ini ini) throws IOException {
-        String[] prefixes = this.commentPrefixes.toArray(new String[0]);
-        Section sec = ini.getUntitledSection();
-        // Uses a head node to store dangling text (if exist), and makes adding node easier
-        Content head = new Content();
-        Content tail = head;
-        String line, parsed;
-        while ((line = br.readLine()) != null) {
-            if ((parsed = parseComment(line, prefixes)) != null) {
-                tail.next = Content.ofComment(parsed);
-                tail = tail.next;
-                continue;
-            }
-            if ((parsed = parseSectionName(line)) != null) {
-                flushIntoSection(sec, head);
-                tail = head;
-                sec = ini.getOrAdd(parsed);
-                continue;
-            }
-            int eqIdx = line.indexOf('=');
-            if (eqIdx != -1) {
-                String key = line.substring(0, eqIdx);
-                String value = line.substring(eqIdx + 1);
-                tail.next = Content.ofKey(key, value);
-                tail = tail.next;
-                continue;
+    /**
+     * 从文件通道中读取 INI 内容（从通道的当前位置读取到末尾）
+     * <p>对于 UTF-8、US-ASCII、ISO-8859-1 编码，会将文件映射到内存中，并直接在字节上进行解析，
+     * 只有在写入区块时才将内容解码为字符串，适合读取体积较大的文件。其他编码则按 {@link #read(InputStream, Charset)} 的方式读取。</p>
+     * <p>此方法不会关闭传入的通道。</p>
+     *
+     * @param channel 文件通道
+     * @param charset 字符编码 {@link Charset}
+     * @throws NullPointerException 如果 {@code channel} / {@code charset} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public Ini read(FileChannel channel, Charset charset) {
+        IniBuilder builder = new IniBuilder(this);
+        read(channel, charset, builder);
+        return builder.finish();
+    }
+
+    /**
+     * 从文件通道中并行读取 INI 内容（从通道的当前位置读取到末尾），使用 {@link ForkJoinPool#commonPool()}
+     *
+     * @param channel 文件通道
+     * @param charset 字符编码 {@link Charset}
+     * @throws NullPointerException 如果 {@code channel} / {@code charset} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     * @see #readParallel(FileChannel, Charset, ForkJoinPool)
+     */
+    public Ini readParallel(FileChannel channel, Charset charset) {
+        return readParallel(channel, charset, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 从文件通道中并行读取 INI 内容（从通道的当前位置读取到末尾）
+     * <p>将文件映射到内存中，先快速查找所有区块标题的位置，再在 {@code pool} 中并行解析各区块的内容，
+     * 最后按原顺序组装。结果与 {@link #read(FileChannel, Charset)} 完全相同（包括重复区块的合并），适合读取含有大量区块的大文件。</p>
+     * <p>编码不是 UTF-8、US-ASCII、ISO-8859-1，或方言中启用了作用于值的规则时（参考 {@link #setDialect(IniDialect)}），
+     * 退回到 {@link #read(FileChannel, Charset)}。此方法不会关闭传入的通道。</p>
+     *
+     * @param channel 文件通道
+     * @param charset 字符编码 {@link Charset}
+     * @param pool    解析使用的线程池
+     * @throws NullPointerException 如果 {@code channel} / {@code charset} / {@code pool} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public Ini readParallel(FileChannel channel, Charset charset, ForkJoinPool pool) {
+        Objects.requireNonNull(charset);
+        Objects.requireNonNull(pool);
+        try {
+            long position = channel.position();
+            long size = channel.size() - position;
+            if (!MappedIniTokenizer.supports(this, charset) || size > Integer.MAX_VALUE || size == 0) {
+                return read(channel, charset);
             }
-            tail.values.add(line);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            return new ParallelIniParser(this, buffer, charset, (int) size).parse(pool);
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
         }
-        flushIntoSection(sec, head);
     }
 
-    private void flushIntoSection(Section sec, Content head) {
-        if (!head.values.isEmpty()) {
-            if (this.danglingTextOption == DanglingTextOptions.KEEP) {
-                sec.setDanglingText(head.joinValues());
-            } else if (this.danglingTextOption == DanglingTextOptions.TO_COMMENT) {
-                sec.addComments(Collections.singletonList(head.joinValues()));
+    /**
+     * 从文件通道中以延迟解析的方式读取 INI 内容（从通道的当前位置读取到末尾）
+     * <p>将文件映射到内存中，只查找所有区块标题的位置，各区块的内容在首次通过 {@link Ini#get(String)}、
+     * {@link Ini#getOrAdd(String)}、{@link Ini#iterator()} 等方法访问时才会解析，解析结果与 {@link #read(FileChannel, Charset)} 相同。
+     * 适合只需要读取大文件中少数几个区块的情况，可以减少启动时间和内存占用。</p>
+     * <p>所有区块解析完成前，返回的 {@link Ini} 对象会引用映射的文件内容，期间请不要修改文件；读取区块也会修改 {@link Ini} 对象的内部状态，
+     * 跨线程使用时需要加锁，或者使用 {@link Ini#freeze()} 后再共享。</p>
+     * <p>编码不是 UTF-8、US-ASCII、ISO-8859-1，或方言中启用了作用于值的规则时（参考 {@link #setDialect(IniDialect)}），
+     * 退回到 {@link #read(FileChannel, Charset)}。此方法不会关闭传入的通道。</p>
+     *
+     * @param channel 文件通道
+     * @param charset 字符编码 {@link Charset}
+     * @throws NullPointerException 如果 {@code channel} / {@code charset} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public Ini readLazily(FileChannel channel, Charset charset) {
+        Objects.requireNonNull(charset);
+        try {
+            long position = channel.position();
+            long size = channel.size() - position;
+            if (!MappedIniTokenizer.supports(this, charset) || size > Integer.MAX_VALUE || size == 0) {
+                return read(channel, charset);
             }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            return LazySections.index(copy(), buffer, charset, (int) size);
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
+        }
+    }
+
+    /**
+     * 从 {@link Reader} 中读取 INI 内容，并将读取到的内容依次传给 {@code handler}（不会生成 {@link Ini} 对象）
+     *
+     * @param reader  输入流
+     * @param handler 接收解析结果的回调
+     * @throws NullPointerException 如果 {@code reader} / {@code handler} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public void read(Reader reader, IniHandler handler) {
+        Objects.requireNonNull(handler);
+        try (Reader r = Objects.requireNonNull(reader)) {
+            new ReaderIniTokenizer(this, r).forEach(handler);
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
         }
-        for (Content p = head.next; p != null; ) {
-            if (p.key != null) {
-                String key = p.key;
-                String value = p.joinValues();
-                if (this.trimKey) key = key.trim();
-                if (this.trimValue) value = value.trim();
-                sec.set(key, value);
-            } else {
-                String comment = p.joinValues();
-                if (this.trimComment) comment = comment.trim();
-                sec.addComments(Collections.singletonList(comment));
+    }
+
+    /**
+     * 从 {@link InputStream} 中读取 INI 内容，并将读取到的内容依次传给 {@code handler}（不会生成 {@link Ini} 对象）
+     *
+     * @param stream  输入流
+     * @param charset 字符编码 {@link Charset}
+     * @param handler 接收解析结果的回调
+     * @throws NullPointerException 如果 {@code stream} / {@code charset} / {@code handler} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public void read(InputStream stream, Charset charset, IniHandler handler) {
+        read(new InputStreamReader(stream, charset), handler);
+    }
+
+    /**
+     * 从文件通道中读取 INI 内容（从通道的当前位置读取到末尾），并将读取到的内容依次传给 {@code handler}（不会生成 {@link Ini} 对象）
+     * <p>此方法不会关闭传入的通道。</p>
+     *
+     * @param channel 文件通道
+     * @param charset 字符编码 {@link Charset}
+     * @param handler 接收解析结果的回调
+     * @throws NullPointerException 如果 {@code channel} / {@code charset} / {@code handler} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     * @see #read(FileChannel, Charset)
+     */
+    public void read(FileChannel channel, Charset charset, IniHandler handler) {
+        Objects.requireNonNull(charset);
+        Objects.requireNonNull(handler);
+        try {
+            long position = channel.position();
+            long size = channel.size() - position;
+            if (!MappedIniTokenizer.supports(this, charset) || size > Integer.MAX_VALUE) {
+                Reader reader = new InputStreamReader(Channels.newInputStream(channel), charset);
+                new ReaderIniTokenizer(this, reader).forEach(handler);
+            } else if (size > 0) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                new MappedIniTokenizer(this, buffer, charset, 0, (int) size).forEach(handler);
             }
-            // Manually clear node can help GC, which like LinkedList
-            Content next = p.next;
-            p.next = null;
-            p.values = null;
-            p.key = null;
-            p = next;
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
         }
-        // Resets head node
-        head.values.clear();
-        head.next = null;
     }
 
-    private String parseSectionName(String s) {
-        int beg = s.indexOf('[');
-        if (beg == -1) return null;
-        int end = s.lastIndexOf(']');
-        if (end == -1 || end < beg) return null;
-        String name = s.substring(beg + 1, end);
-        return this.trimSectionName ? name.trim() : name;
+    /**
+     * 影响解析结果的选项的摘要（不同 JVM 间保持一致）
+     */
+    int optionsHash() {
+        return Objects.hash(danglingTextOption.name(), commentPrefixes, trimSectionName, trimKey, trimValue,
+                trimComment, dialect.rulesHash());
+    }
+
+    /**
+     * 如果设置了字符串池，则返回池中内容相同的字符串
+     */
+    String intern(String s) {
+        return stringPool != null ? stringPool.intern(s) : s;
+    }
+
+    /**
+     * 复制当前的所有选项
+     */
+    IniDeserializer copy() {
+        IniDeserializer copy = new IniDeserializer();
+        copy.danglingTextOption = danglingTextOption;
+        copy.commentPrefixes = new HashSet<>(commentPrefixes);
+        copy.trimSectionName = trimSectionName;
+        copy.trimKey = trimKey;
+        copy.trimValue = trimValue;
+        copy.trimComment = trimComment;
+        copy.compactSections = compactSections;
+        copy.stringPool = stringPool;
+        copy.dialect = dialect.copy();
+        return copy;
+    }
+
+    /**
+     * 打开一个从 {@link Reader} 中逐项读取 INI 内容的读取器
+     * <p>读取器会在调用 {@link IniReader#next()} 时才从输入流中读取，使用完毕后需要调用 {@link IniReader#close()} 关闭。</p>
+     *
+     * @param reader 输入流
+     * @return 读取器
+     * @throws NullPointerException 如果 {@code reader} 为 {@code null}
+     */
+    public IniReader openReader(Reader reader) {
+        Objects.requireNonNull(reader);
+        return new IniReader(new ReaderIniTokenizer(this, reader), reader);
+    }
+
+    /**
+     * 打开一个从 {@link InputStream} 中逐项读取 INI 内容的读取器
+     * <p>读取器会在调用 {@link IniReader#next()} 时才从输入流中读取，使用完毕后需要调用 {@link IniReader#close()} 关闭。</p>
+     *
+     * @param stream  输入流
+     * @param charset 字符编码 {@link Charset}
+     * @return 读取器
+     * @throws NullPointerException 如果 {@code stream} / {@code charset} 中含有 {@code null}
+     */
+    public IniReader openReader(InputStream stream, Charset charset) {
+        return openReader(new InputStreamReader(stream, charset));
     }
 
-    private String parseComment(String s, String[] prefixes) {
+    static String parseComment(String s, String[] prefixes) {
         for (String prefix : prefixes) {
             int i = s.indexOf(prefix);
             if (i == 0 || (i != -1 && isBlank(s, i)))
@@ -291,27 +493,4 @@ public class IniDeserializer {
         return true;
     }
 
-    private static class Content {
-        private String key;
-        private List<String> values = new ArrayList<>(1);
-        private Content next;
-
-        String joinValues() {
-            return String.join("\n", this.values);
-        }
-
-        private static Content ofKey(String key, String value) {
-            Content content = new Content();
-            content.key = key;
-            content.values.add(value);
-            return content;
-        }
-
-        private static Content ofComment(String comment) {
-            Content content = new Content();
-            content.values.add(comment);
-            return content;
-        }
-    }
-
 }
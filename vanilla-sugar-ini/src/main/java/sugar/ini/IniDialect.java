@@ -0,0 +1,305 @@
+package sugar.ini;
+
+import java.util.Objects;
+
+/**
+ * INI 方言：键值分隔符、引号、转义、续行和行内注释等语法规则
+ * <p>通过 {@link IniDeserializer#setDialect(IniDialect)} 和 {@link IniSerializer#setDialect(IniDialect)} 使用，
+ * 可以使用 {@link #windows()}、{@link #python()}、{@link #gitConfig()}、{@link #php()} 等预设，也可以自行组合各项规则。
+ * 直接构造的方言只以 {@code =} 作为分隔符，不启用其他规则，与未设置方言时的解析结果完全相同。</p>
+ * <p>引号、转义、续行和行内注释只作用于项（键值对）的值：</p>
+ * <ul>
+ *     <li>引号：值中以引号包围的部分原样保留（包括首尾空白和行内注释符号），引号本身会被去除，例如 {@code key = " a ; b "}</li>
+ *     <li>转义：{@code \n}、{@code \t}、{@code \r}、{@code \b} 转为对应的控制字符，{@code \\}、引号和行内注释符号转为字符本身，
+ *     其他的反斜杠保持原样</li>
+ *     <li>续行：以反斜杠结尾的行与下一行连接（去除反斜杠和换行符），下一行不会被当作注释或区块标题</li>
+ *     <li>行内注释：引号外的行内注释符号及其后直到行尾的内容会被忽略（不会作为注释保留）</li>
+ * </ul>
+ * <p>设置方言后，解析器会将这些规则编译为字符分类表，在扫描值的同时完成处理；不启用的规则不会产生额外的开销。
+ * 启用引号、转义、续行或行内注释时，按字节解析的方式（内存映射、并行和延迟解析）会退回到按字符解析。</p>
+ */
+public class IniDialect {
+    private String separators = "=";
+    private String quotes = "";
+    private boolean escapes = false;
+    private boolean lineContinuation = false;
+    private String inlineCommentPrefixes = "";
+
+    /**
+     * Windows（{@code GetPrivateProfileString}）风格：以 {@code =} 分隔，去除值两侧的单引号或双引号
+     *
+     * @return 方言
+     */
+    public static IniDialect windows() {
+        return new IniDialect().setQuotes("\"'");
+    }
+
+    /**
+     * Python {@code configparser} 风格（按 {@code configparser} 的默认设置）：以 {@code =} 或 {@code :} 分隔
+     *
+     * @return 方言
+     */
+    public static IniDialect python() {
+        return new IniDialect().setSeparators("=:");
+    }
+
+    /**
+     * git-config 风格：以 {@code =} 分隔，支持双引号、转义、续行，以及 {@code ;} 和 {@code #} 开头的行内注释
+     *
+     * @return 方言
+     */
+    public static IniDialect gitConfig() {
+        return new IniDialect().setQuotes("\"").setEscapes(true).setLineContinuation(true)
+                .setInlineCommentPrefixes(";#");
+    }
+
+    /**
+     * PHP（{@code parse_ini_file}）风格：以 {@code =} 分隔，支持单引号、双引号，以及 {@code ;} 开头的行内注释
+     *
+     * @return 方言
+     */
+    public static IniDialect php() {
+        return new IniDialect().setQuotes("\"'").setInlineCommentPrefixes(";");
+    }
+
+    /**
+     * 获取键和值之间的分隔符（默认 {@code "="}），每个字符都是一个分隔符，行中第一个分隔符之前的部分为键名
+     * <p>输出时使用第一个分隔符。</p>
+     *
+     * @return 分隔符
+     */
+    public String getSeparators() {
+        return separators;
+    }
+
+    /**
+     * 设置键和值之间的分隔符
+     *
+     * @param separators 分隔符，每个字符都是一个分隔符
+     * @return 当前对象（便于链式调用）
+     * @throws IllegalArgumentException 当 {@code separators} 为空，或含有非 ASCII 字符、空白、{@code [}、{@code ]}
+     */
+    public IniDialect setSeparators(String separators) {
+        if (separators.isEmpty()) throw new IllegalArgumentException("Separators must not be empty");
+        checkSymbols(separators);
+        this.separators = separators;
+        return this;
+    }
+
+    /**
+     * 获取包围值的引号（默认为空，不处理引号），每个字符都是一种引号
+     * <p>输出时如果值需要保护（例如含有首尾空白或行内注释符号），使用第一种引号包围。</p>
+     *
+     * @return 引号
+     */
+    public String getQuotes() {
+        return quotes;
+    }
+
+    /**
+     * 设置包围值的引号
+     *
+     * @param quotes 引号，每个字符都是一种引号，传入空字符串则不处理引号
+     * @return 当前对象（便于链式调用）
+     * @throws IllegalArgumentException 当 {@code quotes} 含有非 ASCII 字符、空白、{@code [}、{@code ]}
+     */
+    public IniDialect setQuotes(String quotes) {
+        checkSymbols(quotes);
+        this.quotes = quotes;
+        return this;
+    }
+
+    /**
+     * 获取是否处理值中反斜杠开头的转义序列（默认 {@code false}）
+     *
+     * @return 值
+     */
+    public boolean isEscapes() {
+        return escapes;
+    }
+
+    /**
+     * 设置是否处理值中反斜杠开头的转义序列
+     *
+     * @param escapes 设置为 true 时处理，false 不处理
+     * @return 当前对象（便于链式调用）
+     */
+    public IniDialect setEscapes(boolean escapes) {
+        this.escapes = escapes;
+        return this;
+    }
+
+    /**
+     * 获取值是否可以通过行尾的反斜杠延续到下一行（默认 {@code false}）
+     *
+     * @return 值
+     */
+    public boolean isLineContinuation() {
+        return lineContinuation;
+    }
+
+    /**
+     * 设置值是否可以通过行尾的反斜杠延续到下一行
+     *
+     * @param lineContinuation 设置为 true 时启用，false 不启用
+     * @return 当前对象（便于链式调用）
+     */
+    public IniDialect setLineContinuation(boolean lineContinuation) {
+        this.lineContinuation = lineContinuation;
+        return this;
+    }
+
+    /**
+     * 获取行内注释的符号（默认为空，不处理行内注释），每个字符都是一种符号
+     *
+     * @return 行内注释的符号
+     */
+    public String getInlineCommentPrefixes() {
+        return inlineCommentPrefixes;
+    }
+
+    /**
+     * 设置行内注释的符号
+     *
+     * @param inlineCommentPrefixes 行内注释的符号，每个字符都是一种符号，传入空字符串则不处理行内注释
+     * @return 当前对象（便于链式调用）
+     * @throws IllegalArgumentException 当 {@code inlineCommentPrefixes} 含有非 ASCII 字符、空白、{@code [}、{@code ]}
+     */
+    public IniDialect setInlineCommentPrefixes(String inlineCommentPrefixes) {
+        checkSymbols(inlineCommentPrefixes);
+        this.inlineCommentPrefixes = inlineCommentPrefixes;
+        return this;
+    }
+
+    /**
+     * 是否启用了作用于值的规则（引号、转义、续行或行内注释）
+     */
+    boolean hasValueRules() {
+        return !quotes.isEmpty() || escapes || lineContinuation || !inlineCommentPrefixes.isEmpty();
+    }
+
+    /**
+     * 输出时使用的分隔符
+     */
+    char separator() {
+        return separators.charAt(0);
+    }
+
+    /**
+     * 检查输出的键名中是否含有分隔符，含有分隔符的键名无法被原样读取
+     *
+     * @throws IllegalArgumentException 当键名中含有分隔符
+     */
+    void checkKey(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            if (separators.indexOf(key.charAt(i)) != -1) {
+                throw new IllegalArgumentException("Key contains separator: " + key);
+            }
+        }
+    }
+
+    /**
+     * 将输出的值按规则处理（加引号、转义），使其能被原样读取。不需要处理时返回值本身。
+     *
+     * @throws IllegalArgumentException 当值无法以当前的规则表示
+     */
+    String formatValue(String value) {
+        if (!hasValueRules() || value.isEmpty()) return value;
+        int last = value.length() - 1;
+        boolean blankEdge = value.charAt(0) <= ' ' || value.charAt(last) <= ' ';
+        boolean inline = false;
+        boolean multiLine = false;
+        boolean special = lineContinuation && value.charAt(last) == '\\';
+        for (int i = 0; i <= last; i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                multiLine = true;
+                // A backslash before the line break would join the lines
+                if (lineContinuation && i > 0 && value.charAt(i - 1) == '\\') special = true;
+            }
+            if (inlineCommentPrefixes.indexOf(c) != -1) inline = true;
+            else if (quotes.indexOf(c) != -1 || (escapes && (c == '\\' || c < ' '))) special = true;
+        }
+        if (!blankEdge && !inline && !special) return value;
+        if (!escapes) {
+            // Quotes end at the line break, so multi-line value can not be quoted without escapes
+            if (!multiLine) {
+                // Uses a kind of quote which is not contained in the value
+                for (int i = 0; i < quotes.length(); i++) {
+                    char quote = quotes.charAt(i);
+                    if (value.indexOf(quote) == -1) return quote + value + quote;
+                }
+            }
+            throw unrepresentable(value);
+        }
+        // Whitespace at the edges can only be kept by quotes
+        if (blankEdge && quotes.isEmpty()) throw unrepresentable(value);
+        boolean quoted = !quotes.isEmpty() && (blankEdge || inline);
+        StringBuilder builder = new StringBuilder(value.length() + 8);
+        if (quoted) builder.append(quotes.charAt(0));
+        for (int i = 0; i <= last; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\b':
+                    builder.append("\\b");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                default:
+                    if (quotes.indexOf(c) != -1 || (!quoted && inlineCommentPrefixes.indexOf(c) != -1)) {
+                        builder.append('\\');
+                    }
+                    builder.append(c);
+            }
+        }
+        if (quoted) builder.append(quotes.charAt(0));
+        return builder.toString();
+    }
+
+    private static IllegalArgumentException unrepresentable(String value) {
+        return new IllegalArgumentException("Value can not be represented in the dialect: " + value);
+    }
+
+    /**
+     * 影响解析结果的规则的摘要
+     */
+    int rulesHash() {
+        return Objects.hash(separators, quotes, escapes, lineContinuation, inlineCommentPrefixes);
+    }
+
+    /**
+     * 复制当前的所有规则
+     */
+    IniDialect copy() {
+        return new IniDialect().setSeparators(separators).setQuotes(quotes).setEscapes(escapes)
+                .setLineContinuation(lineContinuation).setInlineCommentPrefixes(inlineCommentPrefixes);
+    }
+
+    /**
+     * 将符号编译为 ASCII 字符的查找表
+     */
+    static boolean[] table(String symbols) {
+        boolean[] table = new boolean[128];
+        for (int i = 0; i < symbols.length(); i++) table[symbols.charAt(i)] = true;
+        return table;
+    }
+
+    private static void checkSymbols(String symbols) {
+        for (int i = 0; i < symbols.length(); i++) {
+            char c = symbols.charAt(i);
+            if (c >= 128 || c <= ' ' || c == '[' || c == ']') {
+                throw new IllegalArgumentException("Unsupported symbol: " + c);
+            }
+        }
+    }
+}
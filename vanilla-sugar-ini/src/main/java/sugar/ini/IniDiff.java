@@ -0,0 +1,169 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.util.*;
+
+/**
+ * 比较两个 INI 对象的差异，以及将差异应用到 INI 对象上
+ * <p>差异以 {@link IniChange} 列表的形式表示，只包含区块和项（键值对）的变化，不包含注释、悬空文本和顺序的变化。
+ * 对于内容较大的 INI，可以只传递差异，由接收方通过 {@link #apply(Ini, List)} 更新本地的 INI 对象。</p>
+ */
+public final class IniDiff {
+
+    private IniDiff() {
+    }
+
+    /**
+     * 比较两个 INI 对象的差异。
+     * <p>内容完全相同的区块改名会表示为一次 {@link IniChange.Type#SECTION_RENAMED}；
+     * 同一区块中值相同的项改名会表示为一次 {@link IniChange.Type#KEY_RENAMED}。</p>
+     *
+     * @param a 原 INI 对象
+     * @param b 新 INI 对象
+     * @return 由 {@code a} 变为 {@code b} 的全部变化
+     * @throws NullPointerException 当 {@code a} 或 {@code b} 为 {@code null}
+     */
+    public static List<IniChange> compute(Ini a, Ini b) {
+        return compute(a, b, true);
+    }
+
+    /**
+     * 比较两个 INI 对象的差异
+     *
+     * @param detectRenames 是否将改名识别为 {@link IniChange.Type#SECTION_RENAMED} 和 {@link IniChange.Type#KEY_RENAMED}
+     */
+    static List<IniChange> compute(Ini a, Ini b, boolean detectRenames) {
+        List<IniChange> changes = new ArrayList<>();
+        diffSection(null, a.getUntitledSection(), b.getUntitledSection(), detectRenames, changes);
+        List<String> removed = new ArrayList<>();
+        for (String name : a.getSectionNames()) {
+            if (!b.contains(name)) removed.add(name);
+        }
+        // Renamed sections, matched by their items
+        Map<String, String> renamed = new HashMap<>();
+        if (detectRenames && !removed.isEmpty()) {
+            Map<Map<String, String>, Deque<String>> candidates = new HashMap<>();
+            for (String name : removed) {
+                candidates.computeIfAbsent(a.get(name).toMap(), k -> new ArrayDeque<>()).add(name);
+            }
+            for (String name : b.getSectionNames()) {
+                if (a.contains(name)) continue;
+                Deque<String> matched = candidates.get(b.get(name).toMap());
+                if (matched != null && !matched.isEmpty()) {
+                    String from = matched.poll();
+                    renamed.put(name, from);
+                    changes.add(new IniChange(IniChange.Type.SECTION_RENAMED, from, null, null, null, name));
+                }
+            }
+        }
+        Set<String> renamedFrom = new HashSet<>(renamed.values());
+        for (String name : removed) {
+            if (!renamedFrom.contains(name)) {
+                changes.add(new IniChange(IniChange.Type.SECTION_REMOVED, name, null, null, null));
+            }
+        }
+        for (String name : b.getSectionNames()) {
+            if (renamed.containsKey(name)) continue;
+            Section old = a.get(name);
+            if (old == null) {
+                changes.add(new IniChange(IniChange.Type.SECTION_ADDED, name, null, null, null));
+            }
+            diffSection(name, old, b.get(name), detectRenames, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 将差异应用到 INI 对象上。
+     *
+     * @param ini   需要修改的 INI 对象
+     * @param patch 通过 {@link #compute(Ini, Ini)} 获取的差异
+     * @throws NullPointerException 当 {@code ini} 或 {@code patch} 为 {@code null}
+     * @throws AccessValueException 当需要修改的区块或改名的项不存在（差异与 INI 对象不匹配）
+     */
+    public static void apply(Ini ini, List<IniChange> patch) {
+        Objects.requireNonNull(ini);
+        for (IniChange change : patch) {
+            switch (change.getType()) {
+                case SECTION_ADDED:
+                    ini.getOrAdd(change.getSection());
+                    break;
+                case SECTION_REMOVED:
+                    ini.remove(change.getSection());
+                    break;
+                case SECTION_RENAMED:
+                    if (!ini.rename(change.getSection(), change.getNewName())) {
+                        throw new AccessValueException("Section " + change.getSection() + " not found");
+                    }
+                    break;
+                case KEY_ADDED:
+                case KEY_CHANGED:
+                    findSection(ini, change).set(change.getKey(), change.getNewValue());
+                    break;
+                case KEY_REMOVED:
+                    findSection(ini, change).remove(change.getKey());
+                    break;
+                case KEY_RENAMED:
+                    if (!findSection(ini, change).rename(change.getKey(), change.getNewName())) {
+                        throw new AccessValueException("Key " + change.getKey() + " not found");
+                    }
+                    break;
+            }
+        }
+    }
+
+    private static Section findSection(Ini ini, IniChange change) {
+        String name = change.getSection();
+        if (name == null) return ini.getUntitledSection();
+        Section section = ini.get(name);
+        if (section == null) throw new AccessValueException("Section " + name + " not found");
+        return section;
+    }
+
+    private static void diffSection(String name, Section a, Section b, boolean detectRenames,
+                                    List<IniChange> changes) {
+        List<String> removed = new ArrayList<>();
+        if (a != null) {
+            for (String key : a.getKeys()) {
+                if (!b.contains(key)) removed.add(key);
+            }
+        }
+        // Renamed keys, matched by their values
+        Map<String, Deque<String>> candidates = null;
+        if (detectRenames && !removed.isEmpty()) {
+            candidates = new HashMap<>();
+            for (String key : removed) {
+                candidates.computeIfAbsent(a.get(key), k -> new ArrayDeque<>()).add(key);
+            }
+        }
+        List<IniChange> renames = new ArrayList<>();
+        List<IniChange> updates = new ArrayList<>();
+        Set<String> renamedFrom = new HashSet<>();
+        for (Map.Entry<String, String> item : b) {
+            String key = item.getKey(), value = item.getValue();
+            String old = a != null ? a.get(key) : null;
+            if (old != null) {
+                if (!old.equals(value)) {
+                    updates.add(new IniChange(IniChange.Type.KEY_CHANGED, name, key, old, value));
+                }
+                continue;
+            }
+            Deque<String> matched = candidates != null ? candidates.get(value) : null;
+            if (matched != null && !matched.isEmpty()) {
+                String from = matched.poll();
+                renamedFrom.add(from);
+                renames.add(new IniChange(IniChange.Type.KEY_RENAMED, name, from, null, null, key));
+            } else {
+                updates.add(new IniChange(IniChange.Type.KEY_ADDED, name, key, null, value));
+            }
+        }
+        changes.addAll(renames);
+        for (String key : removed) {
+            if (!renamedFrom.contains(key)) {
+                changes.add(new IniChange(IniChange.Type.KEY_REMOVED, name, key, a.get(key), null));
+            }
+        }
+        changes.addAll(updates);
+    }
+}
@@ -0,0 +1,270 @@
+package sugar.ini;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * 记录 INI 文件中每个区块所在的字节范围，用于增量保存
+ * <p>区块的范围从区块标题所在行开始，到下一个区块标题之前结束（无标题区块从文件开头开始）。
+ * 保存时通过区块的修改次数找出被修改过的区块：重新输出后长度不变的区块直接在原位置覆盖，
+ * 否则从第一个长度变化（或增删、改名）的区块开始重写文件的剩余部分，其中未被修改的区块会原样复制文件中的内容。</p>
+ * <p>文件在记录之后被其他程序修改过（大小或修改时间不同）时，会退回到完整写入。</p>
+ */
+final class IniFileLayout {
+    private final Path path;
+    private final Charset charset;
+    private final long size;
+    private final FileTime modified;
+    /**
+     * 文件是否以换行符结尾（空文件视为是），否则在最后一个区块之后追加内容前需要重新输出该区块
+     */
+    private final boolean endsWithLineBreak;
+    private final List<Span> spans;
+
+    private IniFileLayout(Path path, Charset charset, BasicFileAttributes attributes, boolean endsWithLineBreak,
+                          List<Span> spans) {
+        this.path = path;
+        this.charset = charset;
+        this.size = attributes.size();
+        this.modified = attributes.lastModifiedTime();
+        this.endsWithLineBreak = endsWithLineBreak;
+        this.spans = spans;
+    }
+
+    /**
+     * 以内存映射的方式读取文件，并在 INI 对象中记录各区块的位置。
+     * <p>字符集不支持按字节解析（参考 {@link MappedIniTokenizer#supports(IniDeserializer, Charset)}），或文件中有重复的区块时不会记录。</p>
+     */
+    static Ini load(IniDeserializer deserializer, Path path, Charset charset) throws IOException {
+        path = path.toAbsolutePath();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (!MappedIniTokenizer.supports(deserializer, charset) || size > Integer.MAX_VALUE) {
+                return deserializer.read(channel, charset);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            IniBuilder builder = new IniBuilder(deserializer);
+            List<String> names = new ArrayList<>();
+            List<Integer> starts = new ArrayList<>();
+            boolean endsWithLineBreak = true;
+            if (size > 0) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                endsWithLineBreak = isLineBreak(buffer.get((int) size - 1));
+                MappedIniTokenizer tokenizer = new MappedIniTokenizer(deserializer, buffer, charset, 0, (int) size);
+                tokenizer.forEach(new IniHandler() {
+                    @Override
+                    public void onSection(String name) {
+                        names.add(name);
+                        starts.add(tokenizer.sectionStart());
+                        builder.onSection(name);
+                    }
+
+                    @Override
+                    public void onKeyValue(String key, String value) {
+                        builder.onKeyValue(key, value);
+                    }
+
+                    @Override
+                    public void onComment(String comment) {
+                        builder.onComment(comment);
+                    }
+
+                    @Override
+                    public void onDanglingText(String text) {
+                        builder.onDanglingText(text);
+                    }
+                });
+            }
+            Ini ini = builder.finish();
+            if (new HashSet<>(names).size() != names.size()) {
+                // Duplicated sections are merged, their content can not be located
+                return ini;
+            }
+            List<Span> spans = new ArrayList<>(names.size() + 1);
+            long start = 0;
+            String name = null;
+            for (int i = 0; i <= names.size(); i++) {
+                long end = i < names.size() ? starts.get(i) : size;
+                Section section = name == null ? ini.getUntitledSection() : ini.get(name);
+                spans.add(new Span(name, section, start, end));
+                if (i < names.size()) name = names.get(i);
+                start = end;
+            }
+            ini.setLayout(new IniFileLayout(path, charset, attributes, endsWithLineBreak, spans));
+            return ini;
+        }
+    }
+
+    /**
+     * 保存 INI 对象，只写入发生变化的部分，并更新 INI 对象中记录的位置
+     */
+    static void save(IniSerializer serializer, Ini ini, Path path, Charset charset) throws IOException {
+        path = path.toAbsolutePath();
+        List<Span> current = new ArrayList<>(ini.count() + 1);
+        current.add(new Span(null, ini.getUntitledSection(), 0, 0));
+        for (Ini.IniEntry entry : ini) {
+            current.add(new Span(entry.getKey(), entry.getValue(), 0, 0));
+        }
+        IniFileLayout layout = ini.getLayout();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+            if (layout != null && layout.matches(path, charset)) {
+                layout.writeChanges(serializer, channel, current);
+            } else {
+                writeAll(serializer, channel, current, charset);
+            }
+            long size = channel.size();
+            boolean endsWithLineBreak = size == 0 || isLineBreak(read(channel, size - 1, 1)[0]);
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            ini.setLayout(new IniFileLayout(path, charset, attributes, endsWithLineBreak, current));
+        }
+    }
+
+    private boolean matches(Path path, Charset charset) throws IOException {
+        if (!this.path.equals(path) || !this.charset.equals(charset)) return false;
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.size() == size && attributes.lastModifiedTime().equals(modified);
+    }
+
+    /**
+     * 写入完整的内容，并填充 {@code current} 中各区块的位置
+     */
+    private static void writeAll(IniSerializer serializer, FileChannel channel, List<Span> current,
+                                 Charset charset) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(output, charset);
+        for (Span span : current) {
+            span.start = output.size();
+            serializer.writeSection(span.name, span.section, writer);
+            writer.flush();
+            span.end = output.size();
+        }
+        channel.truncate(0);
+        writeFully(channel, ByteBuffer.wrap(output.toByteArray()), 0);
+    }
+
+    /**
+     * 写入与记录相比发生变化的部分，并填充 {@code current} 中各区块的位置
+     */
+    private void writeChanges(IniSerializer serializer, FileChannel channel, List<Span> current)
+            throws IOException {
+        // Sections before the first changed position are kept in the same place
+        int first = 0;
+        int common = Math.min(spans.size(), current.size());
+        while (first < common && spans.get(first).isSameSection(current.get(first))) first++;
+        if (!endsWithLineBreak && first == spans.size() && first < current.size()) {
+            // The last line has no line break, rewrites it before appending
+            first--;
+        }
+        Map<Integer, byte[]> rewritten = new HashMap<>();
+        for (int i = 0; i < first; i++) {
+            Span old = spans.get(i);
+            if (old.section.modCount() == old.modCount) continue;
+            byte[] bytes = serialize(serializer, old);
+            if (bytes.length != old.end - old.start) {
+                first = i;
+                break;
+            }
+            rewritten.put(i, bytes);
+        }
+        for (Map.Entry<Integer, byte[]> entry : rewritten.entrySet()) {
+            writeFully(channel, ByteBuffer.wrap(entry.getValue()), spans.get(entry.getKey()).start);
+        }
+        copyPositions(current, first);
+        if (first == spans.size() && first == current.size()) return;
+        // Reads unchanged sections in the tail before overwriting them
+        Map<Section, Span> unchanged = new IdentityHashMap<>();
+        for (int i = first; i < spans.size(); i++) {
+            Span old = spans.get(i);
+            if (old.section.modCount() == old.modCount && (endsWithLineBreak || old.end != size)) {
+                unchanged.put(old.section, old);
+            }
+        }
+        ByteArrayOutputStream tail = new ByteArrayOutputStream();
+        long position = first < spans.size() ? spans.get(first).start : size;
+        for (int i = first; i < current.size(); i++) {
+            Span span = current.get(i);
+            Span old = unchanged.get(span.section);
+            byte[] bytes = old != null && Objects.equals(old.name, span.name)
+                    ? read(channel, old.start, (int) (old.end - old.start))
+                    : serialize(serializer, span);
+            span.start = position + tail.size();
+            tail.write(bytes, 0, bytes.length);
+            span.end = position + tail.size();
+        }
+        writeFully(channel, ByteBuffer.wrap(tail.toByteArray()), position);
+        channel.truncate(position + tail.size());
+    }
+
+    private void copyPositions(List<Span> current, int count) {
+        for (int i = 0; i < count; i++) {
+            current.get(i).start = spans.get(i).start;
+            current.get(i).end = spans.get(i).end;
+        }
+    }
+
+    private byte[] serialize(IniSerializer serializer, Span span) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(output, charset);
+        serializer.writeSection(span.name, span.section, writer);
+        writer.flush();
+        return output.toByteArray();
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            // Casts to Buffer to stay compatible with Java 8 runtime
+            channel.write(buffer, position + ((Buffer) buffer).position());
+        }
+    }
+
+    /**
+     * 区块在文件中的范围 [{@code start}, {@code end})
+     */
+    private static final class Span {
+        private final String name;
+        private final Section section;
+        private final int modCount;
+        private long start;
+        private long end;
+
+        Span(String name, Section section, long start, long end) {
+            this.name = name;
+            this.section = section;
+            this.modCount = section.modCount();
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean isSameSection(Span other) {
+            return section == other.section && Objects.equals(name, other.name);
+        }
+    }
+}
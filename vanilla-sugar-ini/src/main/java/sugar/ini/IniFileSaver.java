@@ -0,0 +1,332 @@
+package sugar.ini;
+
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 以原子方式保存 INI 文件，并支持合并短时间内的多次保存
+ * <p>保存时先将内容写入同一目录下的临时文件并强制刷入磁盘，再通过原子移动替换目标文件。
+ * 其他程序读取文件时只会看到保存前或保存后的完整内容，保存过程中程序崩溃也不会留下不完整的文件。
+ * 替换已存在的文件时会保留其权限（POSIX 文件系统）；目标文件是符号链接时，替换的是链接指向的文件。</p>
+ * <p>设置了合并时间窗口（参考 {@link #setGroupCommitWindow(long)}）后，同一文件在时间窗口内的多次保存会合并为一次写入，
+ * 只写入最后一次保存的内容，所有等待中的保存共用一次刷盘。适合频繁保存配置的场景。</p>
+ * <p>此类是线程安全的。设置选项需在开始保存前完成。</p>
+ */
+public class IniFileSaver implements Closeable {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    /**
+     * Direct buffers kept for reuse, bounded so that concurrent saves do not pin direct memory per thread
+     */
+    private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(4);
+
+    private IniSerializer serializer = new IniSerializer();
+    private Charset charset = StandardCharsets.UTF_8;
+    private long groupCommitWindow = 0;
+
+    private final Map<Path, Pending> pending = new HashMap<>();
+    /**
+     * Held while taking and writing pending content, so that contents of the same path are written in order
+     */
+    private final Object writeLock = new Object();
+    private ScheduledExecutorService executor;
+    private boolean closed;
+
+    /**
+     * 获取输出时使用的 {@link IniSerializer}
+     *
+     * @return IniSerializer
+     */
+    public IniSerializer getSerializer() {
+        return serializer;
+    }
+
+    /**
+     * 设置输出时使用的 {@link IniSerializer}（默认为 {@code new IniSerializer()}）
+     *
+     * @param serializer IniSerializer
+     * @return 当前对象（便于链式调用）
+     */
+    public IniFileSaver setSerializer(IniSerializer serializer) {
+        this.serializer = Objects.requireNonNull(serializer);
+        return this;
+    }
+
+    /**
+     * 获取文件的字符集
+     *
+     * @return 字符集
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 设置文件的字符集（默认为 UTF-8）
+     *
+     * @param charset 字符集
+     * @return 当前对象（便于链式调用）
+     */
+    public IniFileSaver setCharset(Charset charset) {
+        this.charset = Objects.requireNonNull(charset);
+        return this;
+    }
+
+    /**
+     * 获取合并保存的时间窗口（毫秒）
+     *
+     * @return 时间窗口
+     */
+    public long getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
+    /**
+     * 设置合并保存的时间窗口（默认为 0，即每次保存都立即写入）
+     * <p>同一文件首次保存后，在时间窗口内的后续保存会与之合并，时间窗口结束时只写入并刷盘一次。</p>
+     *
+     * @param millis 时间窗口（毫秒）
+     * @return 当前对象（便于链式调用）
+     * @throws IllegalArgumentException 当 {@code millis} 小于 0
+     */
+    public IniFileSaver setGroupCommitWindow(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Window must not be negative");
+        this.groupCommitWindow = millis;
+        return this;
+    }
+
+    /**
+     * 保存 INI 到文件，并等待内容写入磁盘。
+     * <p>设置了合并时间窗口时，会等待时间窗口结束后的写入完成。</p>
+     *
+     * @param ini  要保存的 INI 对象
+     * @param path 文件路径
+     * @throws NullPointerException 当参数中含有 {@code null}
+     * @throws ReadWriteException   当IO异常时抛出
+     */
+    public void save(Ini ini, String path) {
+        try {
+            saveAsync(ini, path).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReadWriteException("Interrupted while saving file", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReadWriteException) throw (ReadWriteException) cause;
+            throw new ReadWriteException("Failed to save file", cause);
+        }
+    }
+
+    /**
+     * 保存 INI 到文件，不等待内容写入磁盘。
+     * <p>INI 的内容会在调用时输出，之后对 INI 对象的修改不会影响本次保存。</p>
+     *
+     * @param ini  要保存的 INI 对象
+     * @param path 文件路径
+     * @return 内容写入磁盘后完成的 {@link CompletableFuture}，写入失败时以 {@link ReadWriteException} 异常完成
+     * @throws NullPointerException  当参数中含有 {@code null}
+     * @throws IllegalStateException 当已经关闭
+     */
+    public CompletableFuture<Void> saveAsync(Ini ini, String path) {
+        Objects.requireNonNull(ini);
+        Path target = Paths.get(path).toAbsolutePath();
+        if (groupCommitWindow == 0) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            try {
+                writeAtomically(serializer, ini, target, charset);
+                future.complete(null);
+            } catch (IOException e) {
+                future.completeExceptionally(new ReadWriteException("Failed to save file", e));
+            } catch (ReadWriteException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+        byte[] content = serialize(ini);
+        synchronized (pending) {
+            if (closed) throw new IllegalStateException("Saver is closed");
+            Pending p = pending.get(target);
+            if (p == null) {
+                p = new Pending();
+                pending.put(target, p);
+                if (executor == null) executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "ini-file-saver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.schedule(() -> commit(target), groupCommitWindow, TimeUnit.MILLISECONDS);
+            }
+            p.content = content;
+            return p.future;
+        }
+    }
+
+    /**
+     * 立即写入所有等待中的保存，并等待写入完成。
+     *
+     * @throws ReadWriteException 当IO异常时抛出
+     */
+    public void flush() {
+        List<Path> paths;
+        synchronized (pending) {
+            paths = new ArrayList<>(pending.keySet());
+        }
+        ReadWriteException error = null;
+        for (Path path : paths) {
+            Pending p = commit(path);
+            if (p != null && p.future.isCompletedExceptionally()) {
+                try {
+                    p.future.join();
+                } catch (CompletionException e) {
+                    error = (ReadWriteException) e.getCause();
+                }
+            }
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * 写入所有等待中的保存，并停止接受新的保存。
+     *
+     * @throws ReadWriteException 当IO异常时抛出
+     */
+    @Override
+    public void close() {
+        synchronized (pending) {
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            if (executor != null) executor.shutdown();
+        }
+    }
+
+    /**
+     * Writes pending content of the path, returns null if already written.
+     */
+    private Pending commit(Path path) {
+        synchronized (writeLock) {
+            Pending p;
+            synchronized (pending) {
+                p = pending.remove(path);
+            }
+            if (p == null) return null;
+            try {
+                writeAtomically(p.content, path);
+                p.future.complete(null);
+            } catch (IOException e) {
+                p.future.completeExceptionally(new ReadWriteException("Failed to save file", e));
+            }
+            return p;
+        }
+    }
+
+    private byte[] serialize(Ini ini) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        serializer.write(ini, stream, charset);
+        return stream.toByteArray();
+    }
+
+    /**
+     * 以原子方式将 INI 写入文件：写入临时文件、刷盘，再替换目标文件
+     */
+    static void writeAtomically(IniSerializer serializer, Ini ini, Path target, Charset charset) throws IOException {
+        writeAtomically(target, channel -> {
+            ByteBuffer buffer = BUFFERS.poll();
+            if (buffer == null) buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try {
+                serializer.write(ini, channel, charset, buffer);
+            } finally {
+                BUFFERS.offer(buffer);
+            }
+        });
+    }
+
+    /**
+     * 以原子方式将内容写入文件
+     */
+    static void writeAtomically(byte[] content, Path target) throws IOException {
+        writeAtomically(target, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) channel.write(buffer);
+        });
+    }
+
+    private static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        // Replaces the file a symbolic link points to, instead of the link itself
+        try {
+            target = target.toRealPath();
+        } catch (NoSuchFileException ignored) {
+            // New file
+        }
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, "." + target.getFileName(), ".tmp");
+        try {
+            copyPosixAttributes(target, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writer.write(channel);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        syncDirectory(dir);
+    }
+
+    /**
+     * Keeps permissions (and owner and group where allowed) of the existing target, since the temporary file is
+     * created as readable by the owner only
+     */
+    private static void copyPosixAttributes(Path target, Path temp) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view == null) return;
+        PosixFileAttributes attributes;
+        try {
+            attributes = view.readAttributes();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        PosixFileAttributeView tempView = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        // Changing owner or group may require privileges, and clears set-user-ID bits on some platforms
+        try {
+            tempView.setOwner(attributes.owner());
+        } catch (IOException ignored) {
+        }
+        try {
+            tempView.setGroup(attributes.group());
+        } catch (IOException ignored) {
+        }
+        tempView.setPermissions(attributes.permissions());
+    }
+
+    /**
+     * Persists the rename, not supported on some platforms (e.g. Windows)
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private interface ContentWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    private static final class Pending {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private byte[] content;
+    }
+}
@@ -0,0 +1,47 @@
+package sugar.ini;
+
+/**
+ * 以事件（回调）的方式接收 INI 解析结果
+ * <p>配合 {@link IniDeserializer#read(java.io.Reader, IniHandler)} 等方法使用，解析过程中每识别出一项完整的内容，
+ * 就会按其在文本中的顺序调用对应的方法，而不会生成 {@link Ini} 对象。适合只需要从大文件中查找少量内容的情况。</p>
+ * <p>传入的内容已经按 {@link IniDeserializer} 的设置处理过（例如去除首尾空白、区块顶部文本的处理方式等）。
+ * 所有方法默认不做任何处理，按需覆盖即可。</p>
+ */
+public interface IniHandler {
+
+    /**
+     * 遇到区块标题时调用，之后的内容都属于此区块（直到下一个区块标题）。
+     * <p>在首个区块标题之前的内容属于无标题区块。</p>
+     *
+     * @param name 区块名
+     */
+    default void onSection(String name) {
+    }
+
+    /**
+     * 遇到项（键值对）时调用。
+     *
+     * @param key   键名
+     * @param value 值（跨越多行时以 {@code "\n"} 连接）
+     */
+    default void onKeyValue(String key, String value) {
+    }
+
+    /**
+     * 遇到注释时调用。
+     * <p>如果区块顶部文本的处理方式为 {@link IniDeserializer.DanglingTextOptions#TO_COMMENT}，顶部文本也会以注释的形式传入。</p>
+     *
+     * @param comment 注释内容（不含前缀）
+     */
+    default void onComment(String comment) {
+    }
+
+    /**
+     * 遇到区块顶部文本（非注释文本）时调用。
+     * <p>仅当区块顶部文本的处理方式为 {@link IniDeserializer.DanglingTextOptions#KEEP} 时才会调用。</p>
+     *
+     * @param text 顶部文本（跨越多行时以 {@code "\n"} 连接）
+     */
+    default void onDanglingText(String text) {
+    }
+}
@@ -0,0 +1,176 @@
+package sugar.ini;
+
+import java.util.*;
+
+/**
+ * {@link Ini} 的二级索引：按键名、键值对或区块名前缀查找区块
+ * <p>创建时为所有有标题区块建立倒排索引（键名 -> 区块、键名和值 -> 区块）以及有序的区块名索引，
+ * 之后区块中的项通过 {@link Section#set(String, Object)}、{@link Section#remove(String)}、{@link Section#rename(String, String)}、
+ * {@link Section#clear()} 修改时，索引会随之更新，查询时不需要遍历所有区块。
+ * INI 中区块的增加、移除、重命名会在下一次查询时同步到索引中。</p>
+ * <p>索引会在区块上注册观察者，不再使用时请调用 {@link #close()} 移除。查询结果按区块名排序。
+ * 无标题区块不会被索引。与 {@link Ini} 一样，此类不是线程安全的。</p>
+ */
+public final class IniIndex implements AutoCloseable {
+    private final Ini ini;
+    private final Section.Observer observer = this::onItemChanged;
+    /**
+     * 已索引的区块 -> 区块名
+     */
+    private final Map<Section, String> names = new IdentityHashMap<>();
+    /**
+     * 区块名（有序）-> 区块
+     */
+    private final TreeMap<String, Section> sections = new TreeMap<>();
+    /**
+     * 键名 -> 含有此键的区块名
+     */
+    private final Map<String, TreeSet<String>> byKey = new HashMap<>();
+    /**
+     * 键名 -> 值 -> 含有此键值对的区块名
+     */
+    private final Map<String, Map<String, TreeSet<String>>> byValue = new HashMap<>();
+    private int sectionModCount;
+    private boolean closed;
+
+    /**
+     * 为 {@code ini} 中的所有有标题区块建立索引
+     *
+     * @param ini INI 对象
+     * @throws NullPointerException 当 {@code ini} 为 {@code null}
+     */
+    public IniIndex(Ini ini) {
+        this.ini = Objects.requireNonNull(ini);
+        for (Ini.IniEntry entry : ini) add(entry.getKey(), entry.getValue());
+        // Iterating may load lazy sections, so the count is read afterwards
+        this.sectionModCount = ini.sectionModCount();
+    }
+
+    /**
+     * 查找含有指定键名的区块。
+     *
+     * @param key 键名
+     * @return 区块名（按区块名排序）
+     * @throws NullPointerException  当 {@code key} 为 {@code null}
+     * @throws IllegalStateException 当索引已关闭
+     */
+    public List<String> findByKey(String key) {
+        Objects.requireNonNull(key);
+        sync();
+        return toList(byKey.get(key));
+    }
+
+    /**
+     * 查找含有指定项（键值对）的区块。
+     *
+     * @param key   键名
+     * @param value 值
+     * @return 区块名（按区块名排序）
+     * @throws NullPointerException  当 {@code key} 或 {@code value} 为 {@code null}
+     * @throws IllegalStateException 当索引已关闭
+     */
+    public List<String> findByValue(String key, String value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        sync();
+        Map<String, TreeSet<String>> values = byValue.get(key);
+        return toList(values != null ? values.get(value) : null);
+    }
+
+    /**
+     * 查找区块名以指定前缀开头的区块。
+     *
+     * @param prefix 前缀
+     * @return 区块名（按区块名排序）
+     * @throws NullPointerException  当 {@code prefix} 为 {@code null}
+     * @throws IllegalStateException 当索引已关闭
+     */
+    public List<String> findByPrefix(String prefix) {
+        Objects.requireNonNull(prefix);
+        sync();
+        List<String> result = new ArrayList<>();
+        for (String name : sections.tailMap(prefix, true).keySet()) {
+            if (!name.startsWith(prefix)) break;
+            result.add(name);
+        }
+        return result;
+    }
+
+    /**
+     * 移除在区块上注册的观察者并清空索引，之后不能再查询
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (Section section : names.keySet()) section.removeObserver(observer);
+        names.clear();
+        sections.clear();
+        byKey.clear();
+        byValue.clear();
+    }
+
+    /**
+     * Synchronize added, removed and renamed sections of the Ini.
+     */
+    private void sync() {
+        if (closed) throw new IllegalStateException("Index has been closed");
+        if (sectionModCount == ini.sectionModCount()) return;
+        Map<Section, String> current = new IdentityHashMap<>();
+        for (Ini.IniEntry entry : ini) current.put(entry.getValue(), entry.getKey());
+        // Removes all stale entries first, in case names are swapped or reused
+        List<Section> stale = new ArrayList<>();
+        for (Map.Entry<Section, String> entry : names.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) stale.add(entry.getKey());
+        }
+        for (Section section : stale) remove(section);
+        for (Map.Entry<Section, String> entry : current.entrySet()) {
+            if (!names.containsKey(entry.getKey())) add(entry.getValue(), entry.getKey());
+        }
+        this.sectionModCount = ini.sectionModCount();
+    }
+
+    private void add(String name, Section section) {
+        names.put(section, name);
+        sections.put(name, section);
+        for (Map.Entry<String, String> item : section) index(name, item.getKey(), item.getValue());
+        section.addObserver(observer);
+    }
+
+    private void remove(Section section) {
+        section.removeObserver(observer);
+        String name = names.remove(section);
+        sections.remove(name);
+        for (Map.Entry<String, String> item : section) unindex(name, item.getKey(), item.getValue());
+    }
+
+    private void onItemChanged(Section section, String key, String oldValue, String newValue) {
+        String name = names.get(section);
+        if (name == null) return;
+        if (oldValue != null) unindex(name, key, oldValue);
+        if (newValue != null) index(name, key, newValue);
+    }
+
+    private void index(String name, String key, String value) {
+        byKey.computeIfAbsent(key, k -> new TreeSet<>()).add(name);
+        byValue.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(value, v -> new TreeSet<>()).add(name);
+    }
+
+    private void unindex(String name, String key, String value) {
+        Map<String, TreeSet<String>> values = byValue.get(key);
+        if (values != null) {
+            removeFrom(values, value, name);
+            if (values.isEmpty()) byValue.remove(key);
+        }
+        removeFrom(byKey, key, name);
+    }
+
+    private static void removeFrom(Map<String, TreeSet<String>> map, String k, String name) {
+        TreeSet<String> set = map.get(k);
+        if (set != null && set.remove(name) && set.isEmpty()) map.remove(k);
+    }
+
+    private static List<String> toList(Set<String> names) {
+        return names != null ? new ArrayList<>(names) : new ArrayList<>();
+    }
+}
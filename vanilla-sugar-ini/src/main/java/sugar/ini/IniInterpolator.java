@@ -0,0 +1,289 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 读取 {@link Ini} 中的值时替换其中引用的变量
+ * <p>支持的引用格式：</p>
+ * <ul>
+ *     <li>{@code ${section:key}}：区块 {@code section} 中项 {@code key} 的值</li>
+ *     <li>{@code ${key}}：同一区块中项 {@code key} 的值</li>
+ *     <li>{@code ${env:VAR}}：环境变量 {@code VAR} 的值（默认通过 {@link System#getenv(String)} 读取，参考 {@link #setEnvironment(Function)}）</li>
+ *     <li>{@code $$}：表示一个 {@code $}</li>
+ * </ul>
+ * <p>被引用的值中的变量也会被替换。引用的项或环境变量不存在时，引用保持原样。</p>
+ * <p>每一项的值只会在首次读取时解析一次，记录其引用的项（依赖图）和替换后的值。之后读取时只检查依赖的项是否被修改，
+ * 修改某一项（例如 {@link Section#set(String, Object)}）只会使直接或间接引用它的值重新替换，其他的值直接返回缓存的结果。
+ * 与 {@link IniKey} 一样，区块和项被移除、重命名后会重新按名称查找，因此结果总是与 INI 的当前内容一致。</p>
+ * <p>与 {@link Ini} 一样，此类不是线程安全的。</p>
+ */
+public final class IniInterpolator {
+    private final Ini ini;
+    private Function<String, String> environment = System::getenv;
+    /**
+     * 区块名（无标题区块为 {@code null}）-> 键名 -> 节点
+     */
+    private final Map<String, Map<String, Node>> nodes = new HashMap<>();
+    /**
+     * 正在解析的节点，用于检测循环引用
+     */
+    private final List<Node> resolving = new ArrayList<>();
+
+    /**
+     * 创建一个读取 {@code ini} 的替换器
+     *
+     * @param ini INI 对象
+     * @throws NullPointerException 当 {@code ini} 为 {@code null}
+     */
+    public IniInterpolator(Ini ini) {
+        this.ini = Objects.requireNonNull(ini);
+    }
+
+    /**
+     * 获取读取环境变量的方法（默认为 {@link System#getenv(String)}）
+     *
+     * @return 读取环境变量的方法
+     */
+    public Function<String, String> getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * 设置读取环境变量的方法，已缓存的结果会被清除
+     *
+     * @param environment 读取环境变量的方法，变量不存在时返回 {@code null}
+     * @return 当前对象（便于链式调用）
+     * @throws NullPointerException 当 {@code environment} 为 {@code null}
+     */
+    public IniInterpolator setEnvironment(Function<String, String> environment) {
+        this.environment = Objects.requireNonNull(environment);
+        nodes.clear();
+        return this;
+    }
+
+    /**
+     * 获取指定项（键值对）中的值，并替换其中的引用。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 替换后的值，如果区块或项不存在则返回 {@code null}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当存在循环引用
+     */
+    public String getItemValue(String name, String key) {
+        return resolve(node(Objects.requireNonNull(name), Objects.requireNonNull(key)));
+    }
+
+    /**
+     * 获取指定项（键值对）中的值，并替换其中的引用。当区块或项不存在时返回 {@code def} 替代。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @param def  当区块或项不存在时的替代返回值
+     * @return 替换后的值或替代值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当存在循环引用
+     */
+    public String getItemValue(String name, String key, String def) {
+        String value = getItemValue(name, key);
+        return value != null ? value : def;
+    }
+
+    /**
+     * 获取无标题区块中指定项（键值对）中的值，并替换其中的引用。
+     *
+     * @param key 键名
+     * @return 替换后的值，如果项不存在则返回 {@code null}
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当存在循环引用
+     */
+    public String getUntitledItemValue(String key) {
+        return resolve(node(null, Objects.requireNonNull(key)));
+    }
+
+    private Node node(String name, String key) {
+        return nodes.computeIfAbsent(name, n -> new HashMap<>()).computeIfAbsent(key, k -> new Node(name, k));
+    }
+
+    /**
+     * Return the resolved value of node, which is recomputed only if its raw value or any dependency has changed.
+     */
+    private String resolve(Node node) {
+        if (node.resolving) throw circularReference(node);
+        node.resolving = true;
+        resolving.add(node);
+        try {
+            String raw = node.raw();
+            boolean changed = !node.valid || raw != node.raw;
+            if (raw != node.raw) {
+                node.raw = raw;
+                node.parts = raw != null ? parse(node.name, raw) : null;
+            }
+            for (int i = 0; !changed && i < node.deps.length; i++) {
+                Node dep = node.deps[i];
+                resolve(dep);
+                changed = dep.stamp != node.depStamps[i];
+            }
+            if (changed) compute(node);
+            return node.value;
+        } finally {
+            node.resolving = false;
+            resolving.remove(resolving.size() - 1);
+        }
+    }
+
+    private void compute(Node node) {
+        node.valid = false;
+        String value;
+        List<Node> deps = new ArrayList<>();
+        if (node.parts == null) {
+            value = node.raw;
+        } else {
+            StringBuilder builder = new StringBuilder();
+            for (Object part : node.parts) {
+                if (part instanceof String) {
+                    builder.append((String) part);
+                    continue;
+                }
+                Reference reference = (Reference) part;
+                String resolved;
+                if (reference.node != null) {
+                    resolved = resolve(reference.node);
+                    deps.add(reference.node);
+                } else {
+                    resolved = environment.apply(reference.variable);
+                }
+                builder.append(resolved != null ? resolved : reference.text);
+            }
+            value = builder.toString();
+        }
+        node.deps = deps.toArray(new Node[0]);
+        node.depStamps = new int[node.deps.length];
+        for (int i = 0; i < node.deps.length; i++) node.depStamps[i] = node.deps[i].stamp;
+        // Dependents are recomputed only if the value has actually changed
+        if (!Objects.equals(node.value, value)) node.stamp++;
+        node.value = value;
+        node.valid = true;
+    }
+
+    /**
+     * Split raw value into literal strings and references, or return null if there is no reference.
+     */
+    private Object[] parse(String name, String raw) {
+        if (raw.indexOf('$') == -1) return null;
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = raw.length();
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            if (c != '$' || i + 1 == length) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            char next = raw.charAt(i + 1);
+            int close = next == '{' ? raw.indexOf('}', i + 2) : -1;
+            if (next == '$') {
+                literal.append('$');
+                i += 2;
+            } else if (close != -1) {
+                if (literal.length() > 0) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                parts.add(reference(name, raw.substring(i + 2, close), raw.substring(i, close + 1)));
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) parts.add(literal.toString());
+        return parts.toArray();
+    }
+
+    private Reference reference(String name, String content, String text) {
+        int colon = content.indexOf(':');
+        if (colon == -1) return new Reference(node(name, content), null, text);
+        String section = content.substring(0, colon);
+        String key = content.substring(colon + 1);
+        if (section.equals("env")) return new Reference(null, key, text);
+        return new Reference(node(section, key), null, text);
+    }
+
+    private AccessValueException circularReference(Node node) {
+        StringBuilder path = new StringBuilder("Circular reference: ");
+        for (int i = resolving.indexOf(node); i < resolving.size(); i++) {
+            path.append(resolving.get(i)).append(" -> ");
+        }
+        return new AccessValueException(path.append(node).toString());
+    }
+
+    /**
+     * 依赖图中的一个节点，对应一项
+     */
+    private final class Node {
+        private final String name;
+        private final String key;
+        /**
+         * 读取有标题区块中的项，无标题区块时为 {@code null}
+         */
+        private final IniKey<String> item;
+
+        private boolean valid;
+        private boolean resolving;
+        /**
+         * 解析 {@link #parts} 时的原始值，以引用比较是否被修改
+         */
+        private String raw;
+        private Object[] parts;
+        private String value;
+        /**
+         * 值的版本，替换后的值改变时增加
+         */
+        private int stamp;
+        private Node[] deps = new Node[0];
+        private int[] depStamps = new int[0];
+
+        Node(String name, String key) {
+            this.name = name;
+            this.key = key;
+            this.item = name != null ? ini.bind(name, key, String.class) : null;
+        }
+
+        String raw() {
+            return item != null ? item.get() : ini.getUntitledSection().get(key);
+        }
+
+        @Override
+        public String toString() {
+            return name != null ? name + ":" + key : key;
+        }
+    }
+
+    /**
+     * 对其他项（{@code node} 不为 {@code null}）或环境变量的引用
+     */
+    private static final class Reference {
+        private final Node node;
+        private final String variable;
+        /**
+         * 引用的原文，引用的内容不存在时保持原样
+         */
+        private final String text;
+
+        Reference(Node node, String variable, String text) {
+            this.node = node;
+            this.variable = variable;
+            this.text = text;
+        }
+    }
+}
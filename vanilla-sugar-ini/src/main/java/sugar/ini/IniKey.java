@@ -0,0 +1,171 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 表示 {@link Ini} 中某一项（键值对）的访问句柄，通过 {@link Ini#bind(String, String, Class)} 创建
+ * <p>首次访问时会查找并记住区块和项的位置，之后只要 INI 中没有增加、移除或重命名区块，区块中没有增加、移除或重命名项，
+ * 读取值时就不需要再通过区块名和键名查找。修改项的值（{@link Section#set(String, Object)}）不会使记住的位置失效。
+ * 区块或项被移除、重命名后，句柄会重新按名称查找，因此总是与 {@link Ini#getItemValue(String, String)} 的结果一致。</p>
+ * <p>转换后的值与 {@link Section#getAsInt(String)} 等方法共用缓存，值不变时不会重复转换。</p>
+ * <p>支持的类型：{@link String}、{@link Integer}、{@link Long}、{@link Double}、{@link Boolean}
+ * （以及对应的基本类型）、{@link Duration} 和枚举类型。</p>
+ * <p>与 {@link Ini} 一样，此类不是线程安全的。</p>
+ *
+ * @param <T> 值的类型
+ */
+public final class IniKey<T> {
+    private final Ini ini;
+    private final String name;
+    private final String key;
+    private final Class<T> type;
+    /**
+     * 值的转换方法，{@link String} 类型时为 {@code null}
+     */
+    private final Function<String, T> parser;
+    private final String typeName;
+
+    private boolean resolved;
+    private int sectionModCount;
+    private Section section;
+    private int keyModCount;
+    private Object slot;
+
+    IniKey(Ini ini, String name, String key, Class<T> type) {
+        this.ini = ini;
+        this.name = Objects.requireNonNull(name);
+        this.key = Objects.requireNonNull(key);
+        this.type = boxed(Objects.requireNonNull(type));
+        this.parser = parserOf(this.type);
+        this.typeName = type.getSimpleName();
+    }
+
+    /**
+     * 获取区块名
+     *
+     * @return 区块名
+     */
+    public String getSectionName() {
+        return name;
+    }
+
+    /**
+     * 获取键名
+     *
+     * @return 键名
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 获取值的类型（基本类型会转为对应的包装类型）
+     *
+     * @return 值的类型
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 检测区块和项是否存在
+     *
+     * @return 存在时返回 true, 不存在返回 false
+     */
+    public boolean exists() {
+        return resolve() != null;
+    }
+
+    /**
+     * 获取项的值，并转为指定类型。
+     *
+     * @return 值，如果区块或项不存在则返回 {@code null}
+     * @throws AccessValueException 当值无法转换为指定类型
+     */
+    public T get() {
+        Object slot = resolve();
+        if (slot == null) return null;
+        if (parser == null) return type.cast(section.valueAt(slot));
+        return section.parsedAt(slot, key, type, parser, typeName);
+    }
+
+    /**
+     * 获取项的值，并转为指定类型。当区块或项不存在时返回 {@code def} 替代。
+     *
+     * @param def 当区块或项不存在时的替代返回值
+     * @return 值或替代值
+     * @throws AccessValueException 当值无法转换为指定类型
+     */
+    public T get(T def) {
+        T value = get();
+        return value != null ? value : def;
+    }
+
+    /**
+     * 设置项的值，如果区块不存在则先创建区块。
+     * <p>传入的值会自动调用 {@link Object#toString()} 转为 {@link String} 类型。</p>
+     *
+     * @param value 值
+     * @throws NullPointerException 当 {@code value} 为 {@code null}
+     */
+    public void set(T value) {
+        Objects.requireNonNull(value);
+        ini.getOrAdd(name).set(key, value);
+    }
+
+    @Override
+    public String toString() {
+        return "IniKey{" + name + "." + key + ": " + typeName + "}";
+    }
+
+    /**
+     * Return the slot of the item, finds it by name only if sections or keys have been changed.
+     */
+    private Object resolve() {
+        Section section = this.section;
+        if (resolved && sectionModCount == ini.sectionModCount()
+                && (section == null || keyModCount == section.keyModCount())) {
+            return slot;
+        }
+        // Lazy loading may change the section, so counts are read after lookup
+        section = ini.get(name);
+        this.sectionModCount = ini.sectionModCount();
+        this.section = section;
+        if (section != null) {
+            this.slot = section.slotOf(key);
+            this.keyModCount = section.keyModCount();
+        } else {
+            this.slot = null;
+        }
+        resolved = true;
+        return slot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> boxed(Class<T> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == int.class) return (Class<T>) Integer.class;
+        if (type == long.class) return (Class<T>) Long.class;
+        if (type == double.class) return (Class<T>) Double.class;
+        if (type == boolean.class) return (Class<T>) Boolean.class;
+        throw new IllegalArgumentException("Unsupported type: " + type.getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Function<String, T> parserOf(Class<T> type) {
+        Function<String, ?> parser;
+        if (type == String.class) parser = null;
+        else if (type == Integer.class) parser = Integer::valueOf;
+        else if (type == Long.class) parser = Long::valueOf;
+        else if (type == Double.class) parser = Double::valueOf;
+        else if (type == Boolean.class) parser = Boolean::valueOf;
+        else if (type == Duration.class) parser = Section::parseDuration;
+        else if (type.isEnum()) parser = value -> Section.parseEnum(value, (Class) type);
+        else throw new IllegalArgumentException("Unsupported type: " + type.getName());
+        return (Function<String, T>) parser;
+    }
+}
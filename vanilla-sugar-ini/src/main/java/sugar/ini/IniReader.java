@@ -0,0 +1,92 @@
+package sugar.ini;
+
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 以拉取（迭代器）的方式逐项读取 INI 内容
+ * <p>由 {@link IniDeserializer#openReader(java.io.Reader)} 等方法创建，每次调用 {@link #next()} 才会从输入流中继续读取，
+ * 不会生成 {@link Ini} 对象。可以在处理过程中随时停止读取（例如所需的区块已经读取完毕），并调用 {@link #close()} 关闭输入流。</p>
+ * <p>读取出的内容已经按 {@link IniDeserializer} 的设置处理过（例如去除首尾空白、区块顶部文本的处理方式等）。</p>
+ */
+public class IniReader implements Iterator<IniToken>, Closeable {
+    private final IniTokenizer tokenizer;
+    private final Closeable source;
+    private IniToken next;
+    private boolean finished;
+
+    IniReader(IniTokenizer tokenizer, Closeable source) {
+        this.tokenizer = tokenizer;
+        this.source = source;
+    }
+
+    /**
+     * 检测是否还有下一项内容（必要时会从输入流中读取）。
+     *
+     * @return 有则返回 true, 否则返回 false
+     * @throws ReadWriteException 如果读取时发生IO异常
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (finished) return false;
+        try {
+            if (!tokenizer.next()) {
+                finished = true;
+                return false;
+            }
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
+        }
+        next = new IniToken(toType(tokenizer.type()), tokenizer.key(), tokenizer.value());
+        return true;
+    }
+
+    /**
+     * 读取下一项内容。
+     *
+     * @return 内容
+     * @throws NoSuchElementException 如果已经没有更多内容
+     * @throws ReadWriteException     如果读取时发生IO异常
+     */
+    @Override
+    public IniToken next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        IniToken token = next;
+        next = null;
+        return token;
+    }
+
+    /**
+     * 停止读取，并关闭输入流。
+     *
+     * @throws ReadWriteException 如果关闭时发生IO异常
+     */
+    @Override
+    public void close() {
+        finished = true;
+        next = null;
+        try {
+            source.close();
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when closing source", e);
+        }
+    }
+
+    private static IniToken.Type toType(int type) {
+        switch (type) {
+            case IniTokenizer.SECTION:
+                return IniToken.Type.SECTION;
+            case IniTokenizer.KEY_VALUE:
+                return IniToken.Type.KEY_VALUE;
+            case IniTokenizer.COMMENT:
+                return IniToken.Type.COMMENT;
+            default:
+                return IniToken.Type.DANGLING_TEXT;
+        }
+    }
+}
@@ -6,8 +6,19 @@ import sugar.ini.exception.ReadWriteException;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * INI 文件读写方法入口类
@@ -47,6 +58,120 @@ public class IniReaderWriter {
         }
     }
 
+    /**
+     * 以内存映射的方式读取文件，解析并返回为 INI 对象，适合读取体积较大的文件。
+     *
+     * @param path 文件路径
+     * @return 读取出的 INI
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see IniDeserializer#read(FileChannel, Charset)
+     */
+    public static Ini loadFromMappedFile(String path) {
+        return loadFromMappedFile(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以内存映射的方式读取文件，解析并返回为 INI 对象，适合读取体积较大的文件。
+     * <p>解析结果与 {@link #loadFromFile(String, Charset)} 相同。读取时会记录各区块在文件中的位置，
+     * 用于之后的 {@link #saveIncremental(Ini, String, Charset)}。</p>
+     *
+     * @param path    文件路径
+     * @param charset 文件的字符集
+     * @return 读取出的 INI
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see IniDeserializer#read(FileChannel, Charset)
+     */
+    public static Ini loadFromMappedFile(String path, Charset charset) {
+        try {
+            return IniFileLayout.load(FILE_READER, Paths.get(path), charset);
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to load file", e);
+        }
+    }
+
+    /**
+     * 以延迟解析的方式读取文件，各区块的内容在首次访问时才会解析，适合只需要读取大文件中少数区块的情况。
+     *
+     * @param path 文件路径
+     * @return 读取出的 INI
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see IniDeserializer#readLazily(FileChannel, Charset)
+     */
+    public static Ini loadLazily(String path) {
+        return loadLazily(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以延迟解析的方式读取文件，各区块的内容在首次访问时才会解析，适合只需要读取大文件中少数区块的情况。
+     * <p>所有区块解析完成前请不要修改文件。</p>
+     *
+     * @param path    文件路径
+     * @param charset 文件的字符集
+     * @return 读取出的 INI
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see IniDeserializer#readLazily(FileChannel, Charset)
+     */
+    public static Ini loadLazily(String path, Charset charset) {
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            return FILE_READER.readLazily(channel, charset);
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to load file", e);
+        }
+    }
+
+    /**
+     * 并发读取多个文件，解析并返回为 INI 对象。
+     *
+     * @param paths    文件路径
+     * @param executor 执行读取的线程池
+     * @return 文件路径到读取出的 INI 的映射，按 {@code paths} 的顺序排列
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see #loadAll(Collection, Charset, Executor)
+     */
+    public static Map<Path, Ini> loadAll(Collection<Path> paths, Executor executor) {
+        return loadAll(paths, StandardCharsets.UTF_8, executor);
+    }
+
+    /**
+     * 并发读取多个文件，解析并返回为 INI 对象。
+     * <p>每个文件作为一个任务提交到 {@code executor} 中，以 {@link IniDeserializer#read(FileChannel, Charset)} 的方式读取，
+     * 等待所有文件读取完成后返回。任意文件读取失败时，抛出其中一个文件的异常。</p>
+     *
+     * @param paths    文件路径
+     * @param charset  文件的字符集
+     * @param executor 执行读取的线程池
+     * @return 文件路径到读取出的 INI 的映射，按 {@code paths} 的顺序排列
+     * @throws NullPointerException 当参数中含有 {@code null}
+     * @throws ReadWriteException   当IO异常时抛出
+     */
+    public static Map<Path, Ini> loadAll(Collection<Path> paths, Charset charset, Executor executor) {
+        Objects.requireNonNull(charset);
+        Objects.requireNonNull(executor);
+        Map<Path, CompletableFuture<Ini>> futures = new LinkedHashMap<>();
+        for (Path path : paths) {
+            futures.put(path, CompletableFuture.supplyAsync(() -> {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return FILE_READER.read(channel, charset);
+                } catch (IOException e) {
+                    throw new ReadWriteException("Failed to load file " + path, e);
+                }
+            }, executor));
+        }
+        Map<Path, Ini> result = new LinkedHashMap<>();
+        for (Map.Entry<Path, CompletableFuture<Ini>> entry : futures.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ReadWriteException) throw (ReadWriteException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                throw e;
+            }
+        }
+        return result;
+    }
+
     /**
      * 将 INI 的内容保存到文件中。
      *
@@ -74,6 +199,68 @@ public class IniReaderWriter {
         }
     }
 
+    /**
+     * 以原子方式将 INI 的内容保存到文件中。
+     *
+     * @param ini  要保存的 INI 对象
+     * @param path 文件路径
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see #saveToFileAtomically(Ini, String, Charset)
+     */
+    public static void saveToFileAtomically(Ini ini, String path) {
+        saveToFileAtomically(ini, path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以原子方式将 INI 的内容保存到文件中。
+     * <p>内容会先写入同一目录下的临时文件并强制刷入磁盘，再替换目标文件。其他程序读取时不会看到写入了一半的文件，
+     * 保存过程中程序崩溃也不会破坏原文件。需要合并频繁的保存时可使用 {@link IniFileSaver}。</p>
+     *
+     * @param ini     要保存的 INI 对象
+     * @param path    文件路径
+     * @param charset 文件的字符集
+     * @throws ReadWriteException 当IO异常（包括文件系统不支持原子移动）时抛出
+     */
+    public static void saveToFileAtomically(Ini ini, String path, Charset charset) {
+        try {
+            IniFileSaver.writeAtomically(FILE_WRITER, ini, Paths.get(path), charset);
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to save file", e);
+        }
+    }
+
+    /**
+     * 以增量的方式将 INI 的内容保存到文件中，只写入发生变化的部分。
+     *
+     * @param ini  要保存的 INI 对象
+     * @param path 文件路径
+     * @throws ReadWriteException 当IO异常时抛出
+     * @see #saveIncremental(Ini, String, Charset)
+     */
+    public static void saveIncremental(Ini ini, String path) {
+        saveIncremental(ini, path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 以增量的方式将 INI 的内容保存到文件中，只写入发生变化的部分。
+     * <p>INI 对象需要是通过 {@link #loadFromMappedFile(String, Charset)} 读取，或者已经通过此方法保存过的同一文件。
+     * 被修改的区块在重新输出后长度不变时，直接覆盖文件中的原内容；否则从第一个发生变化的区块开始重写文件的剩余部分，
+     * 未被修改过的区块保留文件中的原文（包括原有的格式）。</p>
+     * <p>以下情况会退回到完整写入：INI 对象没有记录文件中的位置、文件在读取后被其他程序修改过、路径或字符集不同。</p>
+     *
+     * @param ini     要保存的 INI 对象
+     * @param path    文件路径
+     * @param charset 文件的字符集
+     * @throws ReadWriteException 当IO异常时抛出
+     */
+    public static void saveIncremental(Ini ini, String path, Charset charset) {
+        try {
+            IniFileLayout.save(FILE_WRITER, ini, Paths.get(path), charset);
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to save file", e);
+        }
+    }
+
     /**
      * 将 INI 的内容保存到文件中。
      * <p>自动在注释内容前、键值对等号两侧添加空格</p>
@@ -4,8 +4,10 @@ import sugar.ini.exception.ReadWriteException;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.Objects;
 
@@ -17,6 +19,7 @@ public class IniSerializer {
     private String lineSeparator = System.lineSeparator();
     private boolean addSpaceAroundEqualizer = false;
     private boolean addSpaceBeforeComment = false;
+    private IniDialect dialect = new IniDialect();
 
     /**
      * 获取注释的前缀符号（默认 {@code ";"}）
@@ -98,6 +101,29 @@ public class IniSerializer {
         return this;
     }
 
+    /**
+     * 获取输出时使用的方言（默认为 {@code new IniDialect()}，以 {@code =} 分隔键和值，值原样输出）
+     *
+     * @return 方言
+     */
+    public IniDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * 设置输出时使用的方言，例如 {@link IniDialect#gitConfig()}
+     * <p>键和值之间使用方言的第一个分隔符；值在需要时按方言的规则加引号或转义，使其能以相同的方言原样读取。
+     * 键名中含有分隔符，或值无法以方言的规则表示（例如没有转义时，值中含有所有种类的引号）时，输出会抛出
+     * {@link IllegalArgumentException}。</p>
+     *
+     * @param dialect 方言
+     * @return 当前对象（便于链式调用）
+     */
+    public IniSerializer setDialect(IniDialect dialect) {
+        this.dialect = Objects.requireNonNull(dialect);
+        return this;
+    }
+
     /**
      * 将 INI 内容写出到 {@link Writer} 中
      *
@@ -107,18 +133,9 @@ public class IniSerializer {
      * @throws ReadWriteException   如果读取时发生IO异常
      */
     public void write(Ini ini, Writer writer) {
+        Objects.requireNonNull(writer);
         try {
-            Section untitledSection = ini.getUntitledSection();
-            if (untitledSection != null) {
-                writeSection(untitledSection, writer);
-            }
-            for (Ini.IniEntry entry : ini) {
-                writer.write('[');
-                writer.write(entry.getKey());
-                writer.write(']');
-                writer.write(lineSeparator);
-                writeSection(entry.getValue(), writer);
-            }
+            writeSections(ini, writer::write);
             writer.flush();
         } catch (IOException e) {
             throw new ReadWriteException("Error occurred when serializing content", e);
@@ -137,11 +154,113 @@ public class IniSerializer {
     public void write(Ini ini, OutputStream stream, Charset charset) {
         Objects.requireNonNull(ini);
         Objects.requireNonNull(stream);
-        write(ini, new OutputStreamWriter(stream, charset));
-        // OutputStreamWriter is a wrapper, no need to close
+        // The channel is a wrapper, no need to close
+        write(ini, Channels.newChannel(stream), charset);
+        try {
+            stream.flush();
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when serializing content", e);
+        }
+    }
+
+    /**
+     * 将 INI 内容写出到 {@link WritableByteChannel} 中
+     * <p>内容会直接编码到字节缓冲区中（UTF-8、US-ASCII、ISO-8859-1 无需经过字符编码器），并在缓冲区写满时整块写入通道，
+     * 适合输出内容较多的 INI。每次调用会分配新的缓冲区，需要复用缓冲区时参考
+     * {@link #write(Ini, WritableByteChannel, Charset, ByteBuffer)}。</p>
+     *
+     * @param ini     要导出的 INI 对象
+     * @param channel 输出通道
+     * @param charset 字符编码 {@link Charset}
+     * @throws NullPointerException 如果 {@code ini} / {@code channel} / {@code charset} 中含有 {@code null}
+     * @throws ReadWriteException   如果写入时发生IO异常
+     */
+    public void write(Ini ini, WritableByteChannel channel, Charset charset) {
+        write(ini, channel, charset, ByteBuffer.allocate(ChannelEncoder.DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * 使用指定的缓冲区将 INI 内容写出到 {@link WritableByteChannel} 中
+     * <p>与 {@link #write(Ini, WritableByteChannel, Charset)} 相同，但内容编码到调用者提供的缓冲区中，
+     * 多次输出时可以复用同一个缓冲区（例如直接缓冲区），避免每次分配。缓冲区原有的内容会被清空，
+     * 输出期间不能被其他线程使用。</p>
+     *
+     * @param ini     要导出的 INI 对象
+     * @param channel 输出通道
+     * @param charset 字符编码 {@link Charset}
+     * @param buffer  编码使用的缓冲区，容量不能小于 4 字节
+     * @throws NullPointerException     如果参数中含有 {@code null}
+     * @throws IllegalArgumentException 如果 {@code buffer} 的容量小于 4 字节，或是只读的
+     * @throws ReadWriteException       如果写入时发生IO异常
+     */
+    public void write(Ini ini, WritableByteChannel channel, Charset charset, ByteBuffer buffer) {
+        Objects.requireNonNull(ini);
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(charset);
+        if (buffer.capacity() < 4 || buffer.isReadOnly()) {
+            throw new IllegalArgumentException("Buffer must be writable and hold at least 4 bytes");
+        }
+        try {
+            ChannelEncoder encoder = new ChannelEncoder(channel, charset, buffer);
+            writeSections(ini, encoder::write);
+            encoder.finish();
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when serializing content", e);
+        }
+    }
+
+    /**
+     * 将不可变 INI 快照的内容写出到 {@link Writer} 中
+     *
+     * @param ini    要导出的 INI 快照
+     * @param writer 输出流
+     * @throws NullPointerException 如果 {@code ini} / {@code writer} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public void write(FrozenIni ini, Writer writer) {
+        // Sections of the edited copy share storage with the snapshot, no content is copied
+        write(ini.edit(), writer);
     }
 
-    private void writeSection(Section section, Writer writer) throws IOException {
+    /**
+     * 将不可变 INI 快照的内容写出到 {@link OutputStream} 中
+     *
+     * @param ini     要导出的 INI 快照
+     * @param stream  输出流
+     * @param charset 字符编码 {@link Charset}
+     * @throws NullPointerException 如果 {@code ini} / {@code stream} / {@code charset} 中含有 {@code null}
+     * @throws ReadWriteException   如果读取时发生IO异常
+     */
+    public void write(FrozenIni ini, OutputStream stream, Charset charset) {
+        write(ini.edit(), stream, charset);
+    }
+
+    private void writeSections(Ini ini, TextOutput output) throws IOException {
+        Section untitledSection = ini.getUntitledSection();
+        if (untitledSection != null) {
+            writeSection(null, untitledSection, output);
+        }
+        for (Ini.IniEntry entry : ini) {
+            writeSection(entry.getKey(), entry.getValue(), output);
+        }
+    }
+
+    /**
+     * 输出一个区块（含区块标题），依次输出所有区块的结果与 {@link #write(Ini, Writer)} 相同
+     *
+     * @param name 区块名，无标题区块传入 {@code null}
+     */
+    void writeSection(String name, Section section, Writer writer) throws IOException {
+        writeSection(name, section, writer::write);
+    }
+
+    private void writeSection(String name, Section section, TextOutput writer) throws IOException {
+        if (name != null) {
+            writer.write("[");
+            writer.write(name);
+            writer.write("]");
+            writer.write(lineSeparator);
+        }
         if (section.getDanglingText() != null) {
             writer.write(section.getDanglingText());
             writer.write(lineSeparator);
@@ -149,12 +268,14 @@ public class IniSerializer {
         StringBuilder prefixBuilder = new StringBuilder(commentPrefix);
         if (addSpaceBeforeComment) prefixBuilder.append(' ');
         String combinedPrefix = prefixBuilder.toString();
-        String equalizer = addSpaceAroundEqualizer ? " = " : "=";
+        char separator = dialect.separator();
+        String equalizer = addSpaceAroundEqualizer ? " " + separator + " " : String.valueOf(separator);
         section.forEachKeysAndComments((key, value, comment) -> {
             if (key != null) {
+                dialect.checkKey(key);
                 writer.write(key);
                 writer.write(equalizer);
-                writer.write(value);
+                writer.write(dialect.formatValue(value));
             } else {
                 writer.write(combinedPrefix);
                 writer.write(comment);
@@ -162,4 +283,11 @@ public class IniSerializer {
             writer.write(lineSeparator);
         });
     }
+
+    /**
+     * 文本的输出目标：{@link Writer} 或 {@link ChannelEncoder}
+     */
+    private interface TextOutput {
+        void write(String s) throws IOException;
+    }
 }
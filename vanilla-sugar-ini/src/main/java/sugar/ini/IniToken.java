@@ -0,0 +1,87 @@
+package sugar.ini;
+
+import java.util.Objects;
+
+/**
+ * 表示 {@link IniReader} 读取出的一项内容
+ */
+public final class IniToken {
+
+    /**
+     * 内容的类型
+     */
+    public enum Type {
+        /**
+         * 区块标题
+         */
+        SECTION,
+        /**
+         * 项（键值对）
+         */
+        KEY_VALUE,
+        /**
+         * 注释
+         */
+        COMMENT,
+        /**
+         * 区块顶部文本（非注释文本）
+         */
+        DANGLING_TEXT
+    }
+
+    private final Type type;
+    private final String key;
+    private final String value;
+
+    IniToken(Type type, String key, String value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * 获取内容的类型
+     *
+     * @return 类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 获取键名，仅当类型为 {@link Type#KEY_VALUE} 时有值。
+     *
+     * @return 键名或 {@code null}
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 获取内容的值。
+     * <p>对于不同的类型分别为：区块名、项（键值对）的值、注释内容（不含前缀）、区块顶部文本。</p>
+     *
+     * @return 值
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IniToken token = (IniToken) o;
+        return type == token.type && Objects.equals(key, token.key) && Objects.equals(value, token.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, key, value);
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.KEY_VALUE ? type + "(" + key + "=" + value + ")" : type + "(" + value + ")";
+    }
+}
@@ -0,0 +1,181 @@
+package sugar.ini;
+
+import java.io.IOException;
+
+/**
+ * INI 内容的词法解析器
+ * <p>逐行将输入分类为注释、区块标题、键值对或普通文本。普通文本会合并到上一项内容中（在区块开头时则作为区块顶部文本），
+ * 每次调用 {@link #next()} 产出一项完整的内容。具体如何读取、截取每一行由子类实现。</p>
+ */
+abstract class IniTokenizer {
+    static final int END = -1;
+    static final int NONE = 0;
+    static final int SECTION = 1;
+    static final int KEY_VALUE = 2;
+    static final int COMMENT = 3;
+    static final int DANGLING_TEXT = 4;
+    /**
+     * Line type: neither comment, section header nor key-value pair
+     */
+    static final int TEXT = 5;
+
+    private final IniDeserializer.DanglingTextOptions danglingTextOption;
+    private final boolean trimKey;
+    private final boolean trimValue;
+    private final boolean trimComment;
+
+    private int pending = NONE;
+    private String pendingSection;
+
+    private int type = NONE;
+    private String key;
+    private String value;
+
+    IniTokenizer(IniDeserializer options) {
+        this.danglingTextOption = options.getDanglingTextOption();
+        this.trimKey = options.isTrimKey();
+        this.trimValue = options.isTrimValue();
+        this.trimComment = options.isTrimComment();
+    }
+
+    /**
+     * 读取下一项内容
+     *
+     * @return 读取到内容返回 true, 已到达末尾则返回 false
+     */
+    final boolean next() throws IOException {
+        while (true) {
+            if (pendingSection != null) {
+                emit(SECTION, null, pendingSection);
+                pendingSection = null;
+                return true;
+            }
+            int line = readLine();
+            if (line == END) {
+                return finishPending();
+            }
+            if (line == TEXT) {
+                if (pending == NONE) {
+                    pending = DANGLING_TEXT;
+                    beginPending();
+                } else {
+                    appendPending();
+                }
+                continue;
+            }
+            boolean emitted = finishPending();
+            if (line == SECTION) {
+                pendingSection = sectionName();
+            } else {
+                pending = line;
+                beginPending();
+            }
+            if (emitted) return true;
+        }
+    }
+
+    /**
+     * 将所有内容以事件的方式传给 {@code handler}
+     */
+    final void forEach(IniHandler handler) throws IOException {
+        while (next()) {
+            switch (type) {
+                case SECTION:
+                    handler.onSection(value);
+                    break;
+                case KEY_VALUE:
+                    handler.onKeyValue(key, value);
+                    break;
+                case COMMENT:
+                    handler.onComment(value);
+                    break;
+                default:
+                    handler.onDanglingText(value);
+            }
+        }
+    }
+
+    /**
+     * 当前内容的类型
+     */
+    final int type() {
+        return type;
+    }
+
+    /**
+     * 当前键值对的键名
+     */
+    final String key() {
+        return key;
+    }
+
+    /**
+     * 当前内容的值：键值对的值、区块名、注释或顶部文本
+     */
+    final String value() {
+        return value;
+    }
+
+    private boolean finishPending() {
+        int kind = pending;
+        pending = NONE;
+        switch (kind) {
+            case DANGLING_TEXT:
+                if (danglingTextOption == IniDeserializer.DanglingTextOptions.KEEP) {
+                    emit(DANGLING_TEXT, null, pendingText(false));
+                    return true;
+                } else if (danglingTextOption == IniDeserializer.DanglingTextOptions.TO_COMMENT) {
+                    emit(COMMENT, null, pendingText(false));
+                    return true;
+                }
+                return false;
+            case COMMENT:
+                emit(COMMENT, null, pendingText(trimComment));
+                return true;
+            case KEY_VALUE:
+                String k = pendingKey(trimKey);
+                emit(KEY_VALUE, k, pendingText(trimValue));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void emit(int type, String key, String value) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * 读取并分类下一行
+     *
+     * @return {@link #SECTION}, {@link #KEY_VALUE}, {@link #COMMENT}, {@link #TEXT} 或 {@link #END}
+     */
+    abstract int readLine() throws IOException;
+
+    /**
+     * 当前行（区块标题）中的区块名
+     */
+    abstract String sectionName();
+
+    /**
+     * 以当前行开始一项新的内容：注释（前缀之后的部分）、键值对（键和值）或顶部文本（整行）
+     */
+    abstract void beginPending();
+
+    /**
+     * 将当前行（整行）追加到正在读取的内容末尾
+     */
+    abstract void appendPending();
+
+    /**
+     * 正在读取的键值对的键名
+     */
+    abstract String pendingKey(boolean trim);
+
+    /**
+     * 正在读取的内容（值、注释或顶部文本），多行以 {@code "\n"} 连接
+     */
+    abstract String pendingText(boolean trim);
+}
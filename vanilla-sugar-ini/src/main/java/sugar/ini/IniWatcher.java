@@ -0,0 +1,196 @@
+package sugar.ini;
+
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 监视 INI 文件的变化，并在内容变化时通知监听器
+ * <p>基于 {@link WatchService} 监视文件所在的目录。收到文件变化的通知后，会先比较文件的修改时间和大小，
+ * 只有发生变化时才重新解析文件，并与上一次的内容比较，将具体的变化（新增/移除区块、新增/移除/修改项）传给监听器。</p>
+ * <p>读取失败（例如文件被删除）时会保留上一次的内容。当前内容以不可变快照（{@link FrozenIni}）的形式提供，可以在任意线程中读取。</p>
+ */
+public class IniWatcher implements Closeable {
+    private final Path path;
+    private final Charset charset;
+    private final IniDeserializer deserializer;
+    private final List<IniChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile FrozenIni current;
+    private FileTime lastModified;
+    private long lastSize;
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * 以 UTF-8 编码读取文件，并创建监视器（不会自动开始监视）。
+     *
+     * @param path 文件路径
+     * @throws ReadWriteException 当读取文件时发生IO异常
+     */
+    public IniWatcher(String path) {
+        this(path, StandardCharsets.UTF_8, new IniDeserializer());
+    }
+
+    /**
+     * 读取文件，并创建监视器（不会自动开始监视）。
+     *
+     * @param path         文件路径
+     * @param charset      文件的字符集
+     * @param deserializer 解析文件使用的 {@link IniDeserializer}
+     * @throws NullPointerException 当参数中含有 {@code null}
+     * @throws ReadWriteException   当读取文件时发生IO异常
+     */
+    public IniWatcher(String path, Charset charset, IniDeserializer deserializer) {
+        this.path = Paths.get(path).toAbsolutePath();
+        this.charset = Objects.requireNonNull(charset);
+        this.deserializer = Objects.requireNonNull(deserializer);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+            this.current = load();
+            this.lastModified = attributes.lastModifiedTime();
+            this.lastSize = attributes.size();
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to load file", e);
+        }
+    }
+
+    /**
+     * 获取文件当前的内容。
+     *
+     * @return INI 快照
+     */
+    public FrozenIni getCurrent() {
+        return current;
+    }
+
+    /**
+     * 添加监听器。
+     * <p>监听器会在监视线程（或调用 {@link #refresh()} 的线程）中被调用。</p>
+     *
+     * @param listener 监听器
+     * @throws NullPointerException 当 {@code listener} 为 {@code null}
+     */
+    public void addListener(IniChangeListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * 移除监听器。
+     *
+     * @param listener 监听器
+     */
+    public void removeListener(IniChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 开始在后台线程中监视文件的变化。
+     *
+     * @throws IllegalStateException 当已经开始监视，或监视器已关闭
+     * @throws ReadWriteException    当无法监视文件所在目录
+     */
+    public synchronized void start() {
+        if (closed || thread != null) throw new IllegalStateException("Watcher is already started or closed");
+        try {
+            watchService = path.getFileSystem().newWatchService();
+            path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new ReadWriteException("Failed to watch directory", e);
+        }
+        thread = new Thread(this::watch, "ini-watcher-" + path.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 立即检查文件是否发生了变化。
+     * <p>文件的修改时间和大小都没有变化时不会重新解析；重新解析后会更新当前的内容，区块或项有变化时会通知监听器。
+     * 监听器抛出的异常会交给当前线程的 {@link Thread.UncaughtExceptionHandler} 处理，不会影响其他监听器和监视线程。</p>
+     *
+     * @return 区块或项发生了变化返回 true, 否则返回 false
+     */
+    public synchronized boolean refresh() {
+        FrozenIni previous = current;
+        FrozenIni loaded;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (attributes.lastModifiedTime().equals(lastModified) && attributes.size() == lastSize) {
+                return false;
+            }
+            loaded = load();
+            lastModified = attributes.lastModifiedTime();
+            lastSize = attributes.size();
+        } catch (IOException | ReadWriteException e) {
+            // Keeps previous content
+            return false;
+        }
+        // Comments and dangling text are not compared, but are still part of the current content
+        current = loaded;
+        List<IniChange> changes = IniDiff.compute(previous.edit(), loaded.edit(), false);
+        if (changes.isEmpty()) return false;
+        for (IniChangeListener listener : listeners) {
+            try {
+                listener.onChange(changes, loaded);
+            } catch (RuntimeException e) {
+                // Other listeners are still notified, and the watcher thread keeps running
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 停止监视文件。
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (thread != null) thread.interrupt();
+    }
+
+    private void watch() {
+        Path fileName = path.getFileName();
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean related = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                Object context = event.context();
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(context)) related = true;
+            }
+            if (related && !closed) refresh();
+            if (!key.reset()) return;
+        }
+    }
+
+    private FrozenIni load() throws IOException {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return deserializer.read(stream, charset).freeze();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package sugar.ini;
+
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 记录尚未解析的区块内容在字节缓冲区中的位置，在区块首次被访问时解析
+ * <p>重复出现的区块会记录多段内容，解析时按顺序合并，与顺序解析的结果相同。</p>
+ */
+final class LazySections {
+    private final IniDeserializer options;
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    /**
+     * 未解析的区块，以及区块内容（不含区块标题）所在的范围：[start0, end0, start1, end1, ...]
+     */
+    private final Map<Section, int[]> ranges = new IdentityHashMap<>();
+
+    private LazySections(IniDeserializer options, ByteBuffer buffer, Charset charset) {
+        this.options = options;
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    /**
+     * 查找所有的区块标题，生成只包含空区块的 INI 对象（无标题区块会立即解析）
+     */
+    static Ini index(IniDeserializer options, ByteBuffer buffer, Charset charset, int size) throws IOException {
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> bodyStarts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        new MappedIniTokenizer(options, buffer, charset, 0, size).scanSections(starts, bodyStarts, names);
+        Ini ini = new Ini();
+        IniBuilder builder = new IniBuilder(ini, options);
+        new MappedIniTokenizer(options, buffer, charset, 0, names.isEmpty() ? size : starts.get(0)).forEach(builder);
+        builder.finish();
+        if (names.isEmpty()) return ini;
+        LazySections lazy = new LazySections(options, buffer, charset);
+        for (int i = 0; i < names.size(); i++) {
+            int end = i + 1 < names.size() ? starts.get(i + 1) : size;
+            Section section = ini.getOrAdd(options.intern(names.get(i)));
+            lazy.add(section, bodyStarts.get(i), end);
+        }
+        ini.setLazySections(lazy);
+        return ini;
+    }
+
+    private void add(Section section, int start, int end) {
+        int[] range = ranges.get(section);
+        if (range == null) {
+            range = new int[]{start, end};
+        } else {
+            int n = range.length;
+            range = Arrays.copyOf(range, n + 2);
+            range[n] = start;
+            range[n + 1] = end;
+        }
+        ranges.put(section, range);
+    }
+
+    /**
+     * 如果区块尚未解析，则解析其内容
+     *
+     * @param ini 区块所在的 INI 对象
+     */
+    void load(Ini ini, Section section) {
+        int[] range = ranges.remove(section);
+        if (range == null) return;
+        IniBuilder builder = new IniBuilder(ini, section, options);
+        try {
+            for (int i = 0; i < range.length; i += 2) {
+                new MappedIniTokenizer(options, buffer, charset, range[i], range[i + 1]).forEach(builder);
+            }
+        } catch (IOException e) {
+            throw new ReadWriteException("Error occurred when deserializing content", e);
+        }
+        builder.finish();
+    }
+
+    /**
+     * 放弃解析区块（区块已被移除或清空）
+     */
+    void discard(Section section) {
+        ranges.remove(section);
+    }
+
+    boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+}
@@ -0,0 +1,226 @@
+package sugar.ini;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 直接在字节缓冲区（一般为内存映射的文件）上解析 INI 内容的词法解析器
+ * <p>解析时直接在字节上查找换行符、区块标记、等号和注释前缀（每行只扫描一次，注释前缀通过首字节查表匹配），只有在内容需要输出时才将其解码为字符串。</p>
+ * <p>仅适用于 ASCII 兼容，且多字节字符中不会出现 ASCII 字节的字符集，参考 {@link #supports(IniDeserializer, Charset)}。</p>
+ */
+final class MappedIniTokenizer extends IniTokenizer {
+    private final ByteBuffer buffer;
+    private final ByteBuffer view;
+    private final Charset charset;
+    private final String[] prefixes;
+    private final CommentPrefixes prefixTable;
+    private final boolean[] separators;
+    private final boolean trimSectionName;
+    private final int limit;
+    private byte[] scratch = new byte[128];
+
+    private int pos;
+    private boolean plainBreak = true;
+
+    // Current line
+    private int lineStart, lineEnd;
+    private int keyEnd, textStart;
+    private int sectionStart;
+    private boolean lineAfterPlainBreak;
+
+    // Pending content, which is completed when next non-continuation line (or the end) is reached
+    private int keyStart, pendingKeyEnd;
+    private int start, end;
+    private boolean crInside;
+
+    /**
+     * 解析缓冲区中 [{@code from}, {@code to}) 范围内的内容
+     */
+    MappedIniTokenizer(IniDeserializer options, ByteBuffer buffer, Charset charset, int from, int to) {
+        super(options);
+        this.buffer = buffer;
+        this.view = buffer.duplicate();
+        this.charset = charset;
+        this.prefixes = options.getCommentPrefixes().toArray(new String[0]);
+        this.prefixTable = CommentPrefixes.ofBytes(options.getCommentPrefixes(), charset);
+        this.separators = IniDialect.table(options.getDialect().getSeparators());
+        this.trimSectionName = options.isTrimSectionName();
+        this.pos = from;
+        this.limit = to;
+    }
+
+    /**
+     * 检测是否可以使用字节解析：字符集兼容 ASCII，且方言中没有作用于值的规则（只有分隔符）
+     *
+     * @param options 解析选项
+     * @param charset 字符集
+     * @return 可以使用返回 true, 否则返回 false
+     */
+    static boolean supports(IniDeserializer options, Charset charset) {
+        if (options.getDialect().hasValueRules()) return false;
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    @Override
+    int readLine() {
+        if (pos >= limit) return END;
+        int lineEnd = pos;
+        byte b = 0;
+        while (lineEnd < limit && (b = buffer.get(lineEnd)) != '\n' && b != '\r') lineEnd++;
+        this.lineStart = pos;
+        this.lineEnd = lineEnd;
+        this.lineAfterPlainBreak = plainBreak;
+        // Moves to next line
+        pos = lineEnd;
+        plainBreak = true;
+        if (pos < limit) {
+            pos++;
+            if (b == '\r') {
+                plainBreak = false;
+                if (pos < limit && buffer.get(pos) == '\n') pos++;
+            }
+        }
+        return classify();
+    }
+
+    /**
+     * 在一次扫描中完成分类：行首空白中的注释前缀、第一个 '['、最后一个 ']' 和第一个分隔符
+     */
+    private int classify() {
+        int to = lineEnd;
+        int best = prefixTable.empty();
+        int commentAt = lineStart;
+        int i = lineStart;
+        while (i < to) {
+            int matched = prefixTable.match(buffer, i, to, best);
+            if (matched != -1) {
+                best = matched;
+                commentAt = i;
+            }
+            byte b = buffer.get(i);
+            if (b < 0) {
+                // Non-ASCII character may be a whitespace, falls back to decoded text
+                int commentStart = findCommentStartSlowly(lineStart, to);
+                if (commentStart != -1) {
+                    textStart = commentStart;
+                    return COMMENT;
+                }
+                best = Integer.MAX_VALUE;
+                break;
+            }
+            if (!isAsciiWhitespace(b)) break;
+            i++;
+        }
+        if (best != Integer.MAX_VALUE) {
+            textStart = commentAt + prefixTable.length(best);
+            return COMMENT;
+        }
+        int open = -1, close = -1, eq = -1;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '[') {
+                if (open == -1) open = i;
+            } else if (b == ']') {
+                close = i;
+            } else if (eq == -1 && b >= 0 && separators[b]) {
+                eq = i;
+            }
+        }
+        if (open != -1 && close > open) {
+            keyEnd = close;
+            textStart = open + 1;
+            sectionStart = lineStart;
+            return SECTION;
+        }
+        if (eq != -1) {
+            keyEnd = eq;
+            textStart = eq + 1;
+            return KEY_VALUE;
+        }
+        textStart = lineStart;
+        return TEXT;
+    }
+
+    @Override
+    String sectionName() {
+        return decode(textStart, keyEnd, trimSectionName, false);
+    }
+
+    /**
+     * 只查找区块标题（不解析其他内容），记录每个区块标题所在行的起始位置、下一行的起始位置（可以为 {@code null}）和区块名
+     */
+    void scanSections(List<Integer> starts, List<Integer> bodyStarts, List<String> names) {
+        int line;
+        while ((line = readLine()) != END) {
+            if (line == SECTION) {
+                starts.add(lineStart);
+                if (bodyStarts != null) bodyStarts.add(pos);
+                names.add(sectionName());
+            }
+        }
+    }
+
+    /**
+     * 最近一个区块标题所在行的起始位置（在产出区块后调用）
+     */
+    int sectionStart() {
+        return sectionStart;
+    }
+
+    @Override
+    void beginPending() {
+        keyStart = lineStart;
+        pendingKeyEnd = keyEnd;
+        start = textStart;
+        end = lineEnd;
+        crInside = false;
+    }
+
+    @Override
+    void appendPending() {
+        end = lineEnd;
+        if (!lineAfterPlainBreak) crInside = true;
+    }
+
+    @Override
+    String pendingKey(boolean trim) {
+        return decode(keyStart, pendingKeyEnd, trim, false);
+    }
+
+    @Override
+    String pendingText(boolean trim) {
+        return decode(start, end, trim, crInside);
+    }
+
+    private int findCommentStartSlowly(int pos, int lineEnd) {
+        String line = decode(pos, lineEnd, false, false);
+        String comment = IniDeserializer.parseComment(line, prefixes);
+        if (comment == null) return -1;
+        String head = line.substring(0, line.length() - comment.length());
+        return pos + head.getBytes(charset).length;
+    }
+
+    private String decode(int from, int to, boolean trim, boolean normalize) {
+        if (trim) {
+            while (from < to && (buffer.get(from) & 0xff) <= ' ') from++;
+            while (to > from && (buffer.get(to - 1) & 0xff) <= ' ') to--;
+        }
+        int length = to - from;
+        if (length == 0) return "";
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        // Casts to Buffer to stay compatible with Java 8 runtime
+        ((Buffer) view).limit(to);
+        ((Buffer) view).position(from);
+        view.get(scratch, 0, length);
+        String s = new String(scratch, 0, length, charset);
+        return normalize ? s.replace("\r\n", "\n").replace('\r', '\n') : s;
+    }
+
+    private static boolean isAsciiWhitespace(byte b) {
+        return b >= 0 && Character.isWhitespace(b);
+    }
+}
@@ -0,0 +1,211 @@
+package sugar.ini;
+
+import sugar.ini.exception.AccessValueException;
+
+import java.util.*;
+
+/**
+ * 将多个 {@link Ini} 对象按层叠加的只读视图
+ * <p>各层按优先级从低到高排列，例如 默认配置 &lt; 环境配置 &lt; 本地配置。读取某项时从优先级最高的层开始查找，
+ * 返回第一个包含该项的层中的值。视图只引用各层的 {@link Ini} 对象，不会复制区块，各层的修改会立即反映到视图中。</p>
+ * <p>与 {@link Ini} 一样，此类不是线程安全的。需要跨线程共享时，可以使用 {@link #toIni()} 合并后再 {@link Ini#freeze()}。</p>
+ */
+public final class MergedIni {
+    /**
+     * 各层，按优先级从高到低排列
+     */
+    private final Ini[] layers;
+
+    /**
+     * 创建一个叠加视图。
+     *
+     * @param layers 各层的 INI 对象，按优先级从低到高排列（后面的层会覆盖前面的层）
+     * @throws NullPointerException 当 {@code layers} 或其中的元素为 {@code null}
+     */
+    public MergedIni(Ini... layers) {
+        this(Arrays.asList(layers));
+    }
+
+    /**
+     * 创建一个叠加视图。
+     *
+     * @param layers 各层的 INI 对象，按优先级从低到高排列（后面的层会覆盖前面的层）
+     * @throws NullPointerException 当 {@code layers} 或其中的元素为 {@code null}
+     */
+    public MergedIni(List<Ini> layers) {
+        int n = layers.size();
+        this.layers = new Ini[n];
+        for (int i = 0; i < n; i++) this.layers[n - 1 - i] = Objects.requireNonNull(layers.get(i));
+    }
+
+    /**
+     * 获取各层的 INI 对象。
+     *
+     * @return 各层的 INI 对象，按优先级从低到高排列
+     */
+    public List<Ini> getLayers() {
+        List<Ini> list = new ArrayList<>(Arrays.asList(layers));
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * 检测任意一层中是否包含某区块。
+     *
+     * @param name 区块名
+     * @return 包含时返回 true, 不包含返回 false
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public boolean contains(String name) {
+        for (Ini layer : layers) {
+            if (layer.contains(name)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 获取所有层中的区块名（去重）。
+     * <p>区块名按首次出现的顺序排列，从优先级最低的层开始。</p>
+     *
+     * @return 所有的区块名
+     */
+    public List<String> getSectionNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = layers.length - 1; i >= 0; i--) names.addAll(layers[i].getSectionNames());
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 获取所有层中指定区块内的键名（去重）。
+     * <p>键名按首次出现的顺序排列，从优先级最低的层开始。</p>
+     *
+     * @param name 区块名
+     * @return 所有的键名，区块不存在时返回空列表
+     * @throws NullPointerException 当 {@code name} 为 {@code null}
+     */
+    public List<String> getKeys(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = layers.length - 1; i >= 0; i--) {
+            Section section = layers[i].get(name);
+            if (section != null) keys.addAll(section.getKeys());
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * 获取指定项（键值对）中的值。
+     * <p>返回优先级最高的包含该项的层中的值，如果所有层都不包含该项则返回 {@code null}。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值或 {@code null}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key) {
+        return getItemValue(name, key, null);
+    }
+
+    /**
+     * 获取指定项（键值对）中的值。
+     * <p>返回优先级最高的包含该项的层中的值，如果所有层都不包含该项则返回 {@code def} 替代。</p>
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @param def  当所有层都不包含该项时的替代返回值
+     * @return 值或替代值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 含有 {@code null}
+     */
+    public String getItemValue(String name, String key, String def) {
+        Objects.requireNonNull(key);
+        for (Ini layer : layers) {
+            Section section = layer.get(name);
+            if (section == null) continue;
+            String value = section.get(key);
+            if (value != null) return value;
+        }
+        return def;
+    }
+
+    /**
+     * 获取指定项（键值对）中的值，并转为 int 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当所有层都不包含该项，或值无法转换为 {@code int}
+     */
+    public int getItemValueAsInt(String name, String key) {
+        return findSection(name, key).getAsInt(key);
+    }
+
+    /**
+     * 获取指定项（键值对）中的值，并转为 boolean 返回。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 值
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     * @throws AccessValueException 当所有层都不包含该项
+     */
+    public boolean getItemValueAsBool(String name, String key) {
+        return findSection(name, key).getAsBool(key);
+    }
+
+    /**
+     * 检测任意一层中是否包含某区块，且区块中包含某项（键值对）。
+     *
+     * @param name 区块名
+     * @param key  键名
+     * @return 存在则返回 {@code true} 否则返回 {@code false}
+     * @throws NullPointerException 当 {@code name} 或 {@code key} 为 {@code null}
+     */
+    public boolean containsItemValue(String name, String key) {
+        for (Ini layer : layers) {
+            if (layer.containsItemValue(name, key)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 将各层合并为一个新的 {@link Ini} 对象。
+     * <p>区块和键名按首次出现的顺序排列，值取优先级最高的层中的值。注释和区块顶部文本保留首次出现该区块的层（优先级最低的层）中的内容，
+     * 无标题区块也按相同的规则合并。</p>
+     *
+     * @return 合并后的 INI 对象
+     */
+    public Ini toIni() {
+        Ini ini = new Ini();
+        if (layers.length == 0) return ini;
+        Ini lowest = layers[layers.length - 1];
+        ini.setUntitledSection(lowest.getUntitledSection().deepClone());
+        for (int i = layers.length - 1; i >= 0; i--) {
+            Ini layer = layers[i];
+            if (i != layers.length - 1) mergeSection(ini.getUntitledSection(), layer.getUntitledSection());
+            for (Ini.IniEntry entry : layer) {
+                Section section = ini.get(entry.getKey());
+                if (section == null) ini.putSection(entry.getKey(), entry.getValue().deepClone());
+                else mergeSection(section, entry.getValue());
+            }
+        }
+        return ini;
+    }
+
+    private static void mergeSection(Section target, Section source) {
+        for (Map.Entry<String, String> item : source) target.set(item.getKey(), item.getValue());
+    }
+
+    /**
+     * Return the section in the highest layer containing the key.
+     *
+     * @throws AccessValueException if key not found in any layer
+     */
+    private Section findSection(String name, String key) {
+        Objects.requireNonNull(key);
+        for (Ini layer : layers) {
+            Section section = layer.get(name);
+            if (section != null && section.contains(key)) return section;
+        }
+        throw new AccessValueException("Key \"" + key + "\" not found in section " + name);
+    }
+}
@@ -0,0 +1,103 @@
+package sugar.ini;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 在多个线程中并行解析字节缓冲区中的 INI 内容
+ * <p>先快速扫描一遍所有区块标题的位置，再将连续的若干区块划分为一组，在 {@link ForkJoinPool} 中分别解析，
+ * 最后按原顺序组装到同一个 {@link Ini} 中。重复出现的区块不参与并行解析，在组装时按顺序合并到已有的区块中，
+ * 因此结果与顺序解析完全相同。</p>
+ */
+final class ParallelIniParser {
+    /**
+     * 每组内容的最小字节数，避免任务过小
+     */
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final IniDeserializer options;
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private final int size;
+
+    ParallelIniParser(IniDeserializer options, ByteBuffer buffer, Charset charset, int size) {
+        this.options = options;
+        this.buffer = buffer;
+        this.charset = charset;
+        this.size = size;
+    }
+
+    Ini parse(ForkJoinPool pool) throws IOException {
+        List<Integer> starts = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        new MappedIniTokenizer(options, buffer, charset, 0, size).scanSections(starts, null, names);
+        int count = names.size();
+        // Section i spans [bounds[i + 1], bounds[i + 2]), the untitled section spans [bounds[0], bounds[1])
+        int[] bounds = new int[count + 2];
+        for (int i = 0; i < count; i++) bounds[i + 1] = starts.get(i);
+        bounds[count + 1] = size;
+        boolean[] repeated = new boolean[count];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < count; i++) repeated[i] = !seen.add(names.get(i));
+
+        // Groups contiguous unique sections, starting from the untitled section
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / Math.max(1, pool.getParallelism() * 4));
+        List<int[]> groups = new ArrayList<>();
+        List<ForkJoinTask<Ini>> tasks = new ArrayList<>();
+        int groupStart = -1;
+        for (int i = 0; i <= count; i++) {
+            if (i == count || repeated[i]) {
+                if (groupStart < i) addGroup(pool, bounds, groupStart, i, groups, tasks);
+                groupStart = i + 1;
+            } else if (bounds[i + 1] - bounds[groupStart + 1] >= chunkSize) {
+                addGroup(pool, bounds, groupStart, i, groups, tasks);
+                groupStart = i;
+            }
+        }
+
+        Ini ini = new Ini();
+        int next = -1;
+        for (int g = 0; g < groups.size(); g++) {
+            int from = groups.get(g)[0], to = groups.get(g)[1];
+            // Merges repeated sections before this group
+            for (; next < from; next++) {
+                if (next >= 0) merge(ini, bounds[next + 1], bounds[next + 2]);
+            }
+            Ini part = tasks.get(g).join();
+            if (from == -1) ini.setUntitledSection(part.getUntitledSection());
+            for (Ini.IniEntry entry : part) ini.putSection(entry.getKey(), entry.getValue());
+            next = to;
+        }
+        for (; next < count; next++) {
+            if (next >= 0) merge(ini, bounds[next + 1], bounds[next + 2]);
+        }
+        return ini;
+    }
+
+    /**
+     * Adds a task parsing sections [from, to), where -1 means the untitled section
+     */
+    private void addGroup(ForkJoinPool pool, int[] bounds, int from, int to, List<int[]> groups,
+                          List<ForkJoinTask<Ini>> tasks) {
+        int start = bounds[from + 1], end = bounds[to + 1];
+        groups.add(new int[]{from, to});
+        tasks.add(pool.submit(() -> {
+            IniBuilder builder = new IniBuilder(options);
+            new MappedIniTokenizer(options, buffer, charset, start, end).forEach(builder);
+            return builder.finish();
+        }));
+    }
+
+    /**
+     * Parses a repeated section into the existing one, as what sequential parsing does
+     */
+    private void merge(Ini ini, int start, int end) throws IOException {
+        IniBuilder builder = new IniBuilder(ini, options);
+        new MappedIniTokenizer(options, buffer, charset, start, end).forEach(builder);
+        builder.finish();
+    }
+}
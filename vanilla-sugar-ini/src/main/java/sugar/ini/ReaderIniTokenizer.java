@@ -0,0 +1,340 @@
+package sugar.ini;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * 从 {@link Reader} 中读取的 INI 词法解析器
+ * <p>输入先被读取到可复用的字符缓冲区中，每行只扫描一次即可完成分类（注释前缀通过首字符查表匹配），
+ * 键、值等内容在缓冲区中以位置区间记录，只有在内容需要输出时才创建字符串。
+ * 正在读取的内容（包括多行内容）会一直保留在缓冲区中，因此缓冲区可能会扩容。</p>
+ * <p>方言（{@link IniDialect}）中的分隔符编译为查找表参与行的分类；引号、转义、行内注释在输出值时一次扫描完成处理，
+ * 只有启用续行时才需要在分类时扫描值（判断下一行是否为续行）。</p>
+ */
+final class ReaderIniTokenizer extends IniTokenizer {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final CommentPrefixes prefixes;
+    private final boolean trimSectionName;
+    private final boolean[] separators;
+    /**
+     * 是否启用了作用于值的规则，未启用时不会使用以下的字段
+     */
+    private final boolean valueRules;
+    private final boolean[] quotes;
+    private final boolean[] inlineComments;
+    private final boolean escapes;
+    private final boolean lineContinuation;
+    private final StringBuilder valueBuilder = new StringBuilder();
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+    private int limit;
+    private boolean eof;
+
+    private int pos;
+    private boolean plainBreak = true;
+    /**
+     * 上一行以 '\r' 结尾，读取下一行前需要跳过紧随的 '\n'
+     */
+    private boolean skipLf;
+
+    // Current line
+    private int lineStart, lineEnd;
+    private int keyEnd, textStart;
+    private boolean lineAfterPlainBreak;
+    private int lineType;
+    /**
+     * 当前行以续行符结尾，下一行是值的延续
+     */
+    private boolean continuing;
+    /**
+     * 续行时所在的引号，不在引号中时为 0
+     */
+    private char continuingQuote;
+
+    // Pending content, which is completed when next non-continuation line (or the end) is reached
+    private int keyStart, pendingKeyEnd;
+    private int start, end;
+    private boolean crInside;
+    private boolean pendingValue;
+
+    ReaderIniTokenizer(IniDeserializer options, Reader reader) {
+        super(options);
+        this.reader = reader;
+        this.prefixes = CommentPrefixes.ofChars(options.getCommentPrefixes());
+        this.trimSectionName = options.isTrimSectionName();
+        IniDialect dialect = options.getDialect();
+        this.separators = IniDialect.table(dialect.getSeparators());
+        this.valueRules = dialect.hasValueRules();
+        this.quotes = IniDialect.table(dialect.getQuotes());
+        this.inlineComments = IniDialect.table(dialect.getInlineCommentPrefixes());
+        this.escapes = dialect.isEscapes();
+        this.lineContinuation = dialect.isLineContinuation();
+    }
+
+    @Override
+    int readLine() throws IOException {
+        if (skipLf) {
+            skipLf = false;
+            if (pos < limit || fill()) {
+                if (buffer[pos] == '\n') pos++;
+            }
+        }
+        int i = pos;
+        char c = 0;
+        while (true) {
+            while (i < limit && (c = buffer[i]) != '\n' && c != '\r') i++;
+            if (i < limit) break;
+            int scanned = i - pos;
+            boolean filled = fill();
+            i = pos + scanned;
+            if (!filled) break;
+        }
+        if (i >= limit && i == pos) return END;
+        this.lineStart = pos;
+        this.lineEnd = i;
+        this.lineAfterPlainBreak = plainBreak;
+        // Moves to next line
+        pos = i;
+        plainBreak = true;
+        if (pos < limit) {
+            pos++;
+            if (c == '\r') {
+                plainBreak = false;
+                skipLf = true;
+            }
+        }
+        return lineType = classify();
+    }
+
+    /**
+     * 在一次扫描中完成分类：行首空白中的注释前缀、第一个 '['、最后一个 ']' 和第一个分隔符
+     */
+    private int classify() {
+        char[] buf = buffer;
+        int to = lineEnd;
+        if (continuing) {
+            textStart = lineStart;
+            scanContinuation(lineStart, to, continuingQuote);
+            return TEXT;
+        }
+        int best = prefixes.empty();
+        int commentAt = lineStart;
+        int i = lineStart;
+        while (i < to) {
+            int matched = prefixes.match(buf, i, to, best);
+            if (matched != -1) {
+                best = matched;
+                commentAt = i;
+            }
+            if (!Character.isWhitespace(buf[i])) break;
+            i++;
+        }
+        if (best != Integer.MAX_VALUE) {
+            textStart = commentAt + prefixes.length(best);
+            return COMMENT;
+        }
+        int open = -1, close = -1, eq = -1;
+        for (; i < to; i++) {
+            char c = buf[i];
+            if (c == '[') {
+                if (open == -1) open = i;
+            } else if (c == ']') {
+                close = i;
+            } else if (eq == -1 && c < 128 && separators[c]) {
+                eq = i;
+            }
+        }
+        if (open != -1 && close > open) {
+            keyEnd = close;
+            textStart = open + 1;
+            return SECTION;
+        }
+        if (eq != -1) {
+            keyEnd = eq;
+            textStart = eq + 1;
+            if (lineContinuation) scanContinuation(eq + 1, to, (char) 0);
+            return KEY_VALUE;
+        }
+        textStart = lineStart;
+        return TEXT;
+    }
+
+    /**
+     * 跟踪值中的引号、转义和行内注释，判断 [{@code from}, {@code to}) 是否以续行符结尾
+     *
+     * @param quote 开始时所在的引号，不在引号中时为 0
+     */
+    private void scanContinuation(int from, int to, char quote) {
+        char[] buf = buffer;
+        continuing = false;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == '\\') {
+                if (i == to - 1) {
+                    continuing = true;
+                    continuingQuote = quote;
+                    return;
+                }
+                if (escapes) i++;
+            } else if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c < 128) {
+                if (quotes[c]) quote = c;
+                else if (inlineComments[c]) return;
+            }
+        }
+    }
+
+    /**
+     * 按方言的规则处理值：去除引号、转义、续行符和行内注释
+     * <p>以普通换行连接的多行内容中，引号和行内注释在行尾结束，换行符统一转为 {@code "\n"}。
+     * 去除首尾空白时，引号内和转义得到的字符会被保留。</p>
+     */
+    private String value(int from, int to, boolean trim) {
+        char[] buf = buffer;
+        StringBuilder out = valueBuilder;
+        out.setLength(0);
+        // Length of leading content which is never trimmed
+        int kept = 0;
+        char quote = 0;
+        boolean comment = false;
+        for (int i = from; i < to; i++) {
+            char c = buf[i];
+            if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < to && buf[i + 1] == '\n') i++;
+                quote = 0;
+                comment = false;
+                if (!trim || out.length() > 0) out.append('\n');
+                continue;
+            }
+            if (comment) continue;
+            if (c == '\\') {
+                boolean atBreak = i + 1 == to || buf[i + 1] == '\n' || buf[i + 1] == '\r';
+                if (atBreak && lineContinuation) {
+                    // Skips the backslash and line break
+                    if (++i < to && buf[i] == '\r' && i + 1 < to && buf[i + 1] == '\n') i++;
+                    continue;
+                }
+                if (!atBreak && escapes) {
+                    unescape(buf[++i], out);
+                    kept = out.length();
+                    continue;
+                }
+            }
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+                else out.append(c);
+                kept = out.length();
+            } else if (c < 128 && quotes[c]) {
+                quote = c;
+                kept = out.length();
+            } else if (c < 128 && inlineComments[c]) {
+                comment = true;
+            } else if (!trim || c > ' ' || out.length() > 0) {
+                out.append(c);
+            }
+        }
+        if (trim) {
+            int length = out.length();
+            while (length > kept && out.charAt(length - 1) <= ' ') length--;
+            out.setLength(length);
+        }
+        return out.toString();
+    }
+
+    private void unescape(char c, StringBuilder out) {
+        switch (c) {
+            case 'n':
+                out.append('\n');
+                break;
+            case 't':
+                out.append('\t');
+                break;
+            case 'r':
+                out.append('\r');
+                break;
+            case 'b':
+                out.append('\b');
+                break;
+            case '\\':
+                out.append('\\');
+                break;
+            default:
+                if (c >= 128 || !(quotes[c] || inlineComments[c])) out.append('\\');
+                out.append(c);
+        }
+    }
+
+    /**
+     * 从输入中读取更多内容到缓冲区。读取前会丢弃当前行和正在读取的内容之前的部分，缓冲区已满时扩容。
+     *
+     * @return 读取到内容返回 true, 已到达末尾则返回 false
+     */
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        int keep = Math.min(pos, keyStart);
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            pos -= keep;
+            keyStart -= keep;
+            pendingKeyEnd -= keep;
+            start -= keep;
+            end -= keep;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        int n = reader.read(buffer, limit, buffer.length - limit);
+        if (n == -1) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    @Override
+    String sectionName() {
+        // Pending content has been completed before the section, no need to keep it in buffer
+        keyStart = lineStart;
+        return text(textStart, keyEnd, trimSectionName, false);
+    }
+
+    @Override
+    void beginPending() {
+        keyStart = lineStart;
+        pendingKeyEnd = keyEnd;
+        start = textStart;
+        end = lineEnd;
+        crInside = false;
+        pendingValue = lineType == KEY_VALUE;
+    }
+
+    @Override
+    void appendPending() {
+        end = lineEnd;
+        if (!lineAfterPlainBreak) crInside = true;
+    }
+
+    @Override
+    String pendingKey(boolean trim) {
+        return text(keyStart, pendingKeyEnd, trim, false);
+    }
+
+    @Override
+    String pendingText(boolean trim) {
+        if (valueRules && pendingValue) return value(start, end, trim);
+        return text(start, end, trim, crInside);
+    }
+
+    private String text(int from, int to, boolean trim, boolean normalize) {
+        if (trim) {
+            while (from < to && buffer[from] <= ' ') from++;
+            while (to > from && buffer[to - 1] <= ' ') to--;
+        }
+        if (from == to) return "";
+        String s = new String(buffer, from, to - from);
+        return normalize ? s.replace("\r\n", "\n").replace('\r', '\n') : s;
+    }
+}
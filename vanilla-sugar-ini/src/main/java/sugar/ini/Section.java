@@ -3,17 +3,33 @@ package sugar.ini;
 
 import sugar.ini.exception.AccessValueException;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * 表示 INI 对象内部的一个区块
  */
 public class Section implements Iterable<Map.Entry<String, String>> {
 
-    private final Map<String, String> items = new HashMap<>();
-    private final List<Node> nodes = new ArrayList<>();
+    /**
+     * 键名到数据节点的索引，节点之间以双向链表的方式维护添加顺序
+     */
+    private Map<String, Node> items = new HashMap<>();
+    private Node head = null;
+    private Node tail = null;
+
+    /**
+     * 紧凑存储模式下的全部键值对和注释（此时 {@link #items} 为 {@code null}），首次修改时会转换回链表结构
+     */
+    private CompactSection compact = null;
+
+    /**
+     * 紧凑存储模式下各项转换后的值的缓存（与 {@link #compact} 中的下标对应），首次转换时创建
+     */
+    private Object[] compactParsed = null;
 
     /**
      * 处于区块顶部，但不含注释前缀的文本
@@ -25,6 +41,21 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      */
     private List<String> topComments = null;
 
+    /**
+     * 区块内容的修改次数，每次修改时递增
+     */
+    private int modCount = 0;
+
+    /**
+     * 项的增加、移除、重命名以及存储模式转换的次数，参考 {@link IniKey}
+     */
+    private int keyModCount = 0;
+
+    /**
+     * 项的值发生变化时通知的观察者，没有时为 {@code null}，参考 {@link IniIndex}
+     */
+    private List<Observer> observers = null;
+
     Section() {
     }
 
@@ -37,7 +68,13 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws NullPointerException 当 {@code key} 为 {@code null}
      */
     public String get(String key) {
-        return items.get(Objects.requireNonNull(key));
+        Objects.requireNonNull(key);
+        if (compact != null) {
+            int i = compact.indexOf(key);
+            return i != -1 ? compact.value(i) : null;
+        }
+        Node node = items.get(key);
+        return node != null ? node.value : null;
     }
 
     /**
@@ -49,9 +86,21 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws NullPointerException 当 {@code key} 或 {@code value} 为 {@code null}
      */
     public void set(String key, Object value) {
-        if (items.put(Objects.requireNonNull(key), value.toString()) == null) {
-            nodes.add(new Node(key));
+        String s = value.toString();
+        inflate();
+        Node node = items.get(Objects.requireNonNull(key));
+        if (node != null) {
+            String old = node.value;
+            node.value = s;
+            node.parsed = null;
+            if (observers != null) notifyObservers(key, old, s);
+            return;
         }
+        node = new Node(key, s);
+        items.put(key, node);
+        linkLast(node);
+        keyModCount++;
+        if (observers != null) notifyObservers(key, null, s);
     }
 
     /**
@@ -60,7 +109,7 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @return 项的数量
      */
     public int count() {
-        return items.size();
+        return compact != null ? compact.size() : items.size();
     }
 
     /**
@@ -69,8 +118,12 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @return 项的数量
      */
     public int countKeyAndComments() {
-        return countList(topComments) + nodes.stream()
-                .mapToInt(node -> 1 + countList(node.getComments())).sum();
+        if (compact != null) return compact.size() + compact.commentCount();
+        int count = countList(topComments);
+        for (Node node = head; node != null; node = node.next) {
+            count += 1 + countList(node.comments);
+        }
+        return count;
     }
 
     /**
@@ -88,6 +141,7 @@ public class Section implements Iterable<Map.Entry<String, String>> {
 
     /**
      * 获取此区块中指定项（键值对）的值，并转为 {@code int} 返回。
+     * <p>转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
      *
      * @param key 键名
      * @return 值
@@ -95,16 +149,12 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code int}
      */
     public int getAsInt(String key) {
-        String value = items.get(Objects.requireNonNull(key));
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            throw new AccessValueException("Unable to parse value of key \"" + key + "\" to int");
-        }
+        return getParsed(key, Integer.class, Integer::valueOf, "int");
     }
 
     /**
      * 获取此区块中指定项（键值对）的值，并转为 {@code long} 返回。
+     * <p>转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
      *
      * @param key 键名
      * @return 值
@@ -112,26 +162,72 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code long}
      */
     public long getAsLong(String key) {
-        String value = items.get(Objects.requireNonNull(key));
-        try {
-            return Long.parseLong(value);
-        } catch (NumberFormatException e) {
-            throw new AccessValueException("Unable to parse value of key \"" + key + "\" to long");
-        }
+        return getParsed(key, Long.class, Long::valueOf, "long");
     }
 
     /**
-     * 获取此区块中指定项（键值对）的值，并转为 {@code boolean} 返回。
+     * 获取此区块中指定项（键值对）的值，并转为 {@code double} 返回。
+     * <p>转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
      *
      * @param key 键名
      * @return 值
      * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@code double}
+     * @see Double#parseDouble(String) 转换方法
+     */
+    public double getAsDouble(String key) {
+        return getParsed(key, Double.class, Double::valueOf, "double");
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@code boolean} 返回。
+     * <p>转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
+     *
+     * @param key 键名
+     * @return 值，键（Key）不存在时返回 {@code false}
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
      * @see Boolean#parseBoolean(String) 转换方法
      */
     public boolean getAsBool(String key) {
-        return Boolean.parseBoolean(items.get(Objects.requireNonNull(key)));
+        Boolean value = findParsed(key, Boolean.class, Boolean::valueOf, "boolean");
+        return value != null && value;
     }
 
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为 {@link Duration} 返回。
+     * <p>支持以下格式：</p>
+     * <ul>
+     *     <li>数字加单位，单位可以是 {@code ms}（毫秒）、{@code s}（秒）、{@code m}（分钟）、{@code h}（小时）、{@code d}（天），如 {@code 500ms}、{@code 30s}</li>
+     *     <li>不带单位的数字，视为毫秒</li>
+     *     <li>ISO-8601 格式，如 {@code PT1M30S}，参考 {@link Duration#parse(CharSequence)}</li>
+     * </ul>
+     * <p>转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
+     *
+     * @param key 键名
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值无法转换为 {@link Duration}
+     */
+    public Duration getAsDuration(String key) {
+        return getParsed(key, Duration.class, Section::parseDuration, "Duration");
+    }
+
+    /**
+     * 获取此区块中指定项（键值对）的值，并转为枚举值返回。
+     * <p>值与枚举常量名完全相同时优先匹配，否则忽略大小写匹配。
+     * 转换后的值会被缓存，直到此项被修改或移除，再次获取时不需要重新转换。</p>
+     *
+     * @param key  键名
+     * @param type 枚举类型
+     * @param <E>  枚举类型
+     * @return 值
+     * @throws NullPointerException 当 {@code key} 或 {@code type} 为 {@code null}
+     * @throws AccessValueException 当键（Key）不存在，或值不是枚举常量名
+     */
+    public <E extends Enum<E>> E getAsEnum(String key, Class<E> type) {
+        Objects.requireNonNull(type);
+        return getParsed(key, type, value -> parseEnum(value, type), type.getSimpleName());
+    }
 
     /**
      * 检测此区块中是否包含某项（键值对）。
@@ -141,7 +237,8 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws NullPointerException 当 {@code key} 为 {@code null}
      */
     public boolean contains(String key) {
-        return items.containsKey(Objects.requireNonNull(key));
+        Objects.requireNonNull(key);
+        return compact != null ? compact.indexOf(key) != -1 : items.containsKey(key);
     }
 
     /**
@@ -152,22 +249,21 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws NullPointerException 当 {@code key} 为 {@code null}
      */
     public boolean remove(String key) {
-        if (items.remove(Objects.requireNonNull(key)) == null) {
+        Objects.requireNonNull(key);
+        inflate();
+        Node node = items.remove(key);
+        if (node == null) {
             return false;
         }
-        int i = findKeyIndex(key);
-        Node node = nodes.remove(i);
-        if (node == null) return false;
-        if (i == 0) {
-            appendTopComments(node.getComments());
-        } else {
-            nodes.get(i - 1).appendComments(node.getComments());
-        }
+        unlink(node);
+        keyModCount++;
+        if (observers != null) notifyObservers(key, node.value, null);
         return true;
     }
 
     /**
      * 将指定项的键名（Key）更改为新键名，如果键名（Key）不存在则什么也不做。
+     * <p>项在区块中的位置保持不变。如果新键名已存在，则已有的同名项会先被移除。</p>
      *
      * @param key    键名
      * @param newKey 新的键名
@@ -177,27 +273,45 @@ public class Section implements Iterable<Map.Entry<String, String>> {
     public boolean rename(String key, String newKey) {
         Objects.requireNonNull(newKey);
         if (key.equals(newKey)) return false;
-        String value = items.remove(key);
-        if (value != null) {
-            items.put(newKey, value);
-            for (Node node : nodes) {
-                if (node.getKey().equals(key)) {
-                    node.setKey(newKey);
-                    return true;
-                }
-            }
+        inflate();
+        Node node = items.remove(key);
+        if (node == null) return false;
+        Node replaced = items.put(newKey, node);
+        if (replaced != null) unlink(replaced);
+        node.key = newKey;
+        keyModCount++;
+        if (observers != null) {
+            if (replaced != null) notifyObservers(newKey, replaced.value, null);
+            notifyObservers(key, node.value, null);
+            notifyObservers(newKey, null, node.value);
         }
-        return false;
+        return true;
     }
 
     /**
      * 清空当前区块的所有内容。
      */
     public void clear() {
+        List<Map.Entry<String, String>> removed = null;
+        if (observers != null) {
+            removed = new ArrayList<>();
+            for (Map.Entry<String, String> item : this) removed.add(item);
+        }
+        modCount++;
+        keyModCount++;
+        if (compact != null) {
+            compact = null;
+            compactParsed = null;
+            items = new HashMap<>();
+        }
         items.clear();
-        nodes.clear();
+        head = null;
+        tail = null;
         topComments = null;
         danglingText = null;
+        if (removed != null) {
+            for (Map.Entry<String, String> item : removed) notifyObservers(item.getKey(), item.getValue(), null);
+        }
     }
 
     /**
@@ -207,7 +321,15 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @return 所有的键
      */
     public List<String> getKeys() {
-        return nodes.stream().map(Node::getKey).collect(Collectors.toList());
+        List<String> keys = new ArrayList<>(count());
+        if (compact != null) {
+            for (int i = 0; i < compact.size(); i++) keys.add(compact.key(i));
+            return keys;
+        }
+        for (Node node = head; node != null; node = node.next) {
+            keys.add(node.key);
+        }
+        return keys;
     }
 
     @Override
@@ -215,13 +337,34 @@ public class Section implements Iterable<Map.Entry<String, String>> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Section section = (Section) o;
-        return Objects.equals(danglingText, section.danglingText) && Objects.equals(topComments, section.topComments)
-                && Objects.equals(nodes, section.nodes);
+        if (!Objects.equals(danglingText, section.danglingText) || count() != section.count()) {
+            return false;
+        }
+        if (compact != null && section.compact != null) {
+            return compact.equals(section.compact);
+        }
+        if (!commentsAt(null, -1).equals(section.commentsAt(null, -1))) return false;
+        Node a = head, b = section.head;
+        for (int i = 0; i < count(); i++) {
+            if (!keyAt(a, i).equals(section.keyAt(b, i)) || !valueAt(a, i).equals(section.valueAt(b, i))
+                    || !commentsAt(a, i).equals(section.commentsAt(b, i))) {
+                return false;
+            }
+            if (a != null) a = a.next;
+            if (b != null) b = b.next;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(danglingText, topComments, items);
+        int result = Objects.hashCode(danglingText) * 31 + commentsAt(null, -1).hashCode();
+        Node node = head;
+        for (int i = 0; i < count(); i++) {
+            result = 31 * result + Objects.hash(keyAt(node, i), valueAt(node, i), commentsAt(node, i));
+            if (node != null) node = node.next;
+        }
+        return result;
     }
 
     // region Comment Operation
@@ -244,9 +387,9 @@ public class Section implements Iterable<Map.Entry<String, String>> {
     public void addComments(Collection<String> contents) {
         List<String> filtered = filterNonNull(contents);
         if (filtered.isEmpty()) return;
-        int size = nodes.size();
-        if (size == 0) appendTopComments(filtered);
-        else nodes.get(size - 1).appendComments(filtered);
+        inflate();
+        if (tail == null) appendTopComments(filtered);
+        else tail.appendComments(filtered);
     }
 
     /**
@@ -256,9 +399,10 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public List<String> getCommentsBefore(String key) {
-        int i = findKeyIndex(key);
-        if (i == 0) return wrapList(topComments);
-        return wrapList(nodes.get(i - 1).getComments());
+        if (compact != null) return compact.comments(findKeyIndex(key) - 1);
+        Node prev = findKeyNode(key).prev;
+        if (prev == null) return wrapList(topComments);
+        return wrapList(prev.comments);
     }
 
     /**
@@ -269,9 +413,10 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public void addCommentsBefore(String key, Collection<String> contents) {
-        int i = findKeyIndex(key);
-        if (i == 0) appendTopComments(contents);
-        else nodes.get(i - 1).appendComments(contents);
+        inflate();
+        Node prev = findKeyNode(key).prev;
+        if (prev == null) appendTopComments(contents);
+        else prev.appendComments(contents);
     }
 
     /**
@@ -281,9 +426,10 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public void removeCommentsBefore(String key) {
-        int i = findKeyIndex(key);
-        if (i == 0) topComments = null;
-        else nodes.get(i - 1).removeComments();
+        inflate();
+        Node prev = findKeyNode(key).prev;
+        if (prev == null) topComments = null;
+        else prev.removeComments();
     }
 
     /**
@@ -293,8 +439,9 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public List<String> getCommentsAfter(String key) {
+        if (compact != null) return compact.comments(findKeyIndex(key));
         Node node = findKeyNode(key);
-        return wrapList(node.getComments());
+        return wrapList(node.comments);
     }
 
     /**
@@ -305,6 +452,7 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public void addCommentsAfter(String key, Collection<String> contents) {
+        inflate();
         Node node = findKeyNode(key);
         node.appendComments(contents);
     }
@@ -316,6 +464,7 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException 当键（Key）不存在或为 {@code null}
      */
     public void removeCommentsAfter(String key) {
+        inflate();
         Node node = findKeyNode(key);
         node.removeComments();
     }
@@ -327,19 +476,27 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @return 注释
      */
     public List<String> getComments() {
-        List<String> comments = this.topComments;
-        Stream<String> top = comments != null ? comments.stream() : Stream.empty();
-        Stream<String> inNode = nodes.stream().map(Node::getComments).filter(Objects::nonNull)
-                .flatMap(List::stream);
-        return Stream.concat(top, inNode).collect(Collectors.toList());
+        List<String> comments = new ArrayList<>();
+        if (compact != null) {
+            for (int i = -1; i < compact.size(); i++) comments.addAll(compact.comments(i));
+            return comments;
+        }
+        if (topComments != null) comments.addAll(topComments);
+        for (Node node = head; node != null; node = node.next) {
+            if (node.comments != null) comments.addAll(node.comments);
+        }
+        return comments;
     }
 
     /**
      * 移除所有的注释。
      */
     public void removeComments() {
+        inflate();
         this.topComments = null;
-        nodes.forEach(Node::removeComments);
+        for (Node node = head; node != null; node = node.next) {
+            node.removeComments();
+        }
     }
 
     /**
@@ -358,6 +515,7 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @param danglingText 要设置的顶部文本。或者传入 {@code null} 清空顶部文本
      */
     public void setDanglingText(String danglingText) {
+        modCount++;
         this.danglingText = danglingText;
     }
 
@@ -367,21 +525,31 @@ public class Section implements Iterable<Map.Entry<String, String>> {
 
     /**
      * 将区块中项（键值对）生成为一个新 {@link Map}。
+     * <p>键值对按添加顺序排列。</p>
      *
      * @return 区块中的项
      */
     public Map<String, String> toMap() {
-        return new HashMap<>(items);
+        Map<String, String> map = new LinkedHashMap<>();
+        if (compact != null) {
+            for (int i = 0; i < compact.size(); i++) map.put(compact.key(i), compact.value(i));
+            return map;
+        }
+        for (Node node = head; node != null; node = node.next) {
+            map.put(node.key, node.value);
+        }
+        return map;
     }
 
     /**
-     * 返回一个可访问此区块内键值对的迭代器
+     * 返回一个可访问此区块内键值对的迭代器（只读）
+     * <p>键值对按添加顺序排列。</p>
      *
      * @return 迭代器
      */
     @Override
     public Iterator<Map.Entry<String, String>> iterator() {
-        return Collections.unmodifiableMap(items).entrySet().iterator();
+        return compact != null ? new CompactItr(compact) : new Itr(head);
     }
 
     // endregion Collection Conversion
@@ -394,30 +562,44 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @return 当前对象的副本
      */
     Section deepClone() {
+        if (compact != null) {
+            // Compact storage is immutable, it can be shared until either section is modified
+            return ofCompact(compact, danglingText);
+        }
         Section section = new Section();
-        section.items.putAll(this.items);
-        section.appendTopComments(this.topComments);
         section.danglingText = this.danglingText;
-        for (Node n : this.nodes) {
-            Node nn = new Node(n.getKey());
-            nn.appendComments(n.getComments());
-            section.nodes.add(nn);
+        section.appendTopComments(this.topComments);
+        for (Node n = head; n != null; n = n.next) {
+            Node nn = new Node(n.key, n.value);
+            nn.appendComments(n.comments);
+            section.items.put(nn.key, nn);
+            section.linkLast(nn);
         }
         return section;
     }
 
     <E extends Exception> void forEachKeysAndComments(ContentConsumer<E> consumer) throws E {
+        if (compact != null) {
+            for (String comment : compact.comments(-1)) {
+                consumer.accept(null, null, comment);
+            }
+            for (int i = 0; i < compact.size(); i++) {
+                consumer.accept(compact.key(i), compact.value(i), null);
+                for (String comment : compact.comments(i)) {
+                    consumer.accept(null, null, comment);
+                }
+            }
+            return;
+        }
         if (topComments != null && !topComments.isEmpty()) {
             for (String comment : topComments) {
                 consumer.accept(null, null, comment);
             }
         }
-        for (Node node : nodes) {
-            String key = node.getKey();
-            String value = items.get(key);
-            List<String> comments = node.getComments();
+        for (Node node = head; node != null; node = node.next) {
+            List<String> comments = node.comments;
             boolean emptyComments = comments == null || comments.isEmpty();
-            consumer.accept(key, value != null ? value : "", null);
+            consumer.accept(node.key, node.value, null);
             if (!emptyComments) {
                 for (String comment : comments) {
                     consumer.accept(null, null, comment);
@@ -430,20 +612,287 @@ public class Section implements Iterable<Map.Entry<String, String>> {
         void accept(String key, String value, String comment) throws E;
     }
 
+    /**
+     * 项的值发生变化（增加、修改、移除，重命名视为移除后增加）时的观察者
+     */
+    interface Observer {
+        /**
+         * @param oldValue 原来的值，新增的项为 {@code null}
+         * @param newValue 新的值，移除的项为 {@code null}
+         */
+        void onItemChanged(Section section, String key, String oldValue, String newValue);
+    }
+
+    void addObserver(Observer observer) {
+        if (observers == null) observers = new ArrayList<>(1);
+        observers.add(observer);
+    }
+
+    void removeObserver(Observer observer) {
+        if (observers == null) return;
+        observers.remove(observer);
+        if (observers.isEmpty()) observers = null;
+    }
+
+    private void notifyObservers(String key, String oldValue, String newValue) {
+        for (Observer observer : observers) observer.onItemChanged(this, key, oldValue, newValue);
+    }
+
+    /**
+     * 将区块转换为紧凑存储模式，减少内存占用。首次修改区块时会自动转换回普通模式。
+     */
+    void compact() {
+        if (compact != null) return;
+        compact = buildCompact();
+        compactParsed = null;
+        keyModCount++;
+        items = null;
+        head = null;
+        tail = null;
+        topComments = null;
+    }
+
+    boolean isCompact() {
+        return compact != null;
+    }
+
+    /**
+     * 获取区块内容的修改次数，可用于判断区块在某一时刻之后是否被修改过
+     */
+    int modCount() {
+        return modCount;
+    }
+
+    /**
+     * 获取项的增加、移除、重命名以及存储模式转换的次数，次数不变时 {@link #slotOf(String)} 的结果仍然有效
+     */
+    int keyModCount() {
+        return keyModCount;
+    }
+
+    /**
+     * 获取键名对应项的位置（普通模式下为数据节点，紧凑模式下为下标），用于跳过键名查找直接读取值
+     *
+     * @return 项的位置，不存在时返回 {@code null}
+     */
+    Object slotOf(String key) {
+        if (compact != null) {
+            int i = compact.indexOf(key);
+            return i != -1 ? i : null;
+        }
+        return items.get(key);
+    }
+
+    /**
+     * 获取指定位置的项的值
+     *
+     * @param slot {@link #slotOf(String)} 返回的位置
+     */
+    String valueAt(Object slot) {
+        return slot instanceof Node ? ((Node) slot).value : compact.value((Integer) slot);
+    }
+
+    /**
+     * 获取指定位置的项转换后的值，优先使用缓存
+     *
+     * @param slot {@link #slotOf(String)} 返回的位置
+     * @throws AccessValueException 当值无法转换
+     */
+    <T> T parsedAt(Object slot, String key, Class<T> type, Function<String, T> parser, String typeName) {
+        return slot instanceof Node ? parsedAt((Node) slot, key, type, parser, typeName)
+                : parsedAt(compact, (Integer) slot, key, type, parser, typeName);
+    }
+
+    /**
+     * 获取区块内容的不可变快照（紧凑模式下直接返回当前存储），不会改变当前区块的存储模式
+     */
+    CompactSection snapshot() {
+        return compact != null ? compact : buildCompact();
+    }
+
+    /**
+     * 以紧凑存储创建区块，存储在区块首次被修改前可以与其他区块共享
+     */
+    static Section ofCompact(CompactSection compact, String danglingText) {
+        Section section = new Section();
+        section.compact = compact;
+        section.items = null;
+        section.danglingText = danglingText;
+        return section;
+    }
+
+    private CompactSection buildCompact() {
+        int size = items.size();
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        int[] offsets = new int[size + 2];
+        int commentCount = countList(topComments);
+        offsets[1] = commentCount;
+        int i = 0;
+        for (Node node = head; node != null; node = node.next, i++) {
+            keys[i] = node.key;
+            values[i] = node.value;
+            commentCount += countList(node.comments);
+            offsets[i + 2] = commentCount;
+        }
+        String[] comments = null;
+        if (commentCount > 0) {
+            comments = new String[commentCount];
+            int pos = copyComments(topComments, comments, 0);
+            for (Node node = head; node != null; node = node.next) {
+                pos = copyComments(node.comments, comments, pos);
+            }
+        }
+        return new CompactSection(keys, values, comments, offsets);
+    }
+
     // endregion Inner Access
 
     /**
-     * Find index of key.
+     * Convert compact storage back to linked nodes and counts the modification, should be called before any
+     * modification.
+     */
+    private void inflate() {
+        modCount++;
+        CompactSection c = compact;
+        if (c == null) return;
+        Object[] parsed = compactParsed;
+        keyModCount++;
+        compact = null;
+        compactParsed = null;
+        items = new HashMap<>();
+        appendTopComments(c.comments(-1));
+        for (int i = 0; i < c.size(); i++) {
+            Node node = new Node(c.key(i), c.value(i));
+            if (parsed != null) node.parsed = parsed[i];
+            node.appendComments(c.comments(i));
+            items.put(node.key, node);
+            linkLast(node);
+        }
+    }
+
+    /**
+     * Return the parsed value of specified key, from cache if present.
+     *
+     * @throws AccessValueException if key not found or value can not be parsed
+     */
+    private <T> T getParsed(String key, Class<T> type, Function<String, T> parser, String typeName) {
+        T value = findParsed(key, type, parser, typeName);
+        if (value == null) throw parseFailed(key, typeName);
+        return value;
+    }
+
+    /**
+     * Return the parsed value of specified key, from cache if present, or null if key not found.
+     * <p>Cached values are immutable, so concurrent readers of an unmodified section (e.g. {@link FrozenSection})
+     * at worst parse the same value twice.</p>
+     *
+     * @throws AccessValueException if value can not be parsed
+     */
+    private <T> T findParsed(String key, Class<T> type, Function<String, T> parser, String typeName) {
+        Objects.requireNonNull(key);
+        CompactSection c = compact;
+        if (c != null) {
+            int i = c.indexOf(key);
+            return i != -1 ? parsedAt(c, i, key, type, parser, typeName) : null;
+        }
+        Node node = items.get(key);
+        return node != null ? parsedAt(node, key, type, parser, typeName) : null;
+    }
+
+    private <T> T parsedAt(CompactSection c, int i, String key, Class<T> type, Function<String, T> parser,
+                           String typeName) {
+        Object[] cache = compactParsed;
+        Object cached = cache != null ? cache[i] : null;
+        if (type.isInstance(cached)) return type.cast(cached);
+        T value = parse(key, c.value(i), parser, typeName);
+        if (cache == null) compactParsed = cache = new Object[c.size()];
+        cache[i] = value;
+        return value;
+    }
+
+    private static <T> T parsedAt(Node node, String key, Class<T> type, Function<String, T> parser,
+                                  String typeName) {
+        Object cached = node.parsed;
+        if (type.isInstance(cached)) return type.cast(cached);
+        T value = parse(key, node.value, parser, typeName);
+        node.parsed = value;
+        return value;
+    }
+
+    private static <T> T parse(String key, String value, Function<String, T> parser, String typeName) {
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+            throw parseFailed(key, typeName);
+        }
+    }
+
+    private static AccessValueException parseFailed(String key, String typeName) {
+        return new AccessValueException("Unable to parse value of key \"" + key + "\" to " + typeName);
+    }
+
+    static Duration parseDuration(String value) {
+        String s = value.trim();
+        int sign = s.startsWith("-") || s.startsWith("+") ? 1 : 0;
+        if (s.regionMatches(true, sign, "P", 0, 1)) {
+            return Duration.parse(s);
+        }
+        int end = s.length();
+        while (end > 0 && Character.isLetter(s.charAt(end - 1))) end--;
+        long amount = Long.parseLong(s.substring(0, end).trim());
+        switch (s.substring(end).toLowerCase(Locale.ROOT)) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Unknown unit of duration: " + value);
+        }
+    }
+
+    static <E extends Enum<E>> E parseEnum(String value, Class<E> type) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            for (E constant : type.getEnumConstants()) {
+                if (constant.name().equalsIgnoreCase(value)) return constant;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return the index of specified key in compact storage.
      *
      * @throws AccessValueException if key not found
      */
     private int findKeyIndex(String key) {
-        for (int i = 0; i < nodes.size(); i++) {
-            Node node = nodes.get(i);
-            if (node.getKey().equals(key)) return i;
-        }
-        throwInvalidKey(key);
-        throw new AccessValueException("");
+        int i = key != null ? compact.indexOf(key) : -1;
+        if (i == -1) throwInvalidKey(key);
+        return i;
+    }
+
+    // Accessors for both storage modes: uses node in linked mode, or index in compact mode
+
+    private String keyAt(Node node, int index) {
+        return compact != null ? compact.key(index) : node.key;
+    }
+
+    private String valueAt(Node node, int index) {
+        return compact != null ? compact.value(index) : node.value;
+    }
+
+    private List<String> commentsAt(Node node, int index) {
+        if (compact != null) return compact.comments(index);
+        return wrapList(index == -1 ? topComments : node.comments);
     }
 
     /**
@@ -452,7 +901,32 @@ public class Section implements Iterable<Map.Entry<String, String>> {
      * @throws AccessValueException if key not found
      */
     private Node findKeyNode(String key) {
-        return nodes.get(findKeyIndex(key));
+        Node node = key != null ? items.get(key) : null;
+        if (node == null) throwInvalidKey(key);
+        return node;
+    }
+
+    private void linkLast(Node node) {
+        node.prev = tail;
+        if (tail == null) head = node;
+        else tail.next = node;
+        tail = node;
+    }
+
+    /**
+     * Unlink the node, and moves its comments to the previous node (or top comments).
+     */
+    private void unlink(Node node) {
+        Node prev = node.prev, next = node.next;
+        if (prev == null) {
+            head = next;
+            appendTopComments(node.comments);
+        } else {
+            prev.next = next;
+            prev.appendComments(node.comments);
+        }
+        if (next == null) tail = prev;
+        else next.prev = prev;
     }
 
     private void appendTopComments(Collection<String> comments) {
@@ -474,19 +948,33 @@ public class Section implements Iterable<Map.Entry<String, String>> {
         return list == null || list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
     }
 
+    private static int copyComments(List<String> comments, String[] dest, int pos) {
+        if (comments == null) return pos;
+        for (String comment : comments) dest[pos++] = comment;
+        return pos;
+    }
+
     private static <T> int countList(List<T> list) {
         return list == null ? 0 : list.size();
     }
 
     /**
-     * 区块中的数据节点，由键名 + 尾部注释 组成
+     * 区块中的数据节点，由键名 + 值 + 尾部注释组成
      */
     private static class Node {
         private String key;
+        private String value;
         private List<String> comments;
-
-        public Node(String key) {
+        /**
+         * 值转换后的缓存，值被修改时清空
+         */
+        private Object parsed;
+        private Node prev;
+        private Node next;
+
+        Node(String key, String value) {
             this.key = key;
+            this.value = value;
         }
 
         private void appendComments(Collection<String> comments) {
@@ -496,25 +984,13 @@ public class Section implements Iterable<Map.Entry<String, String>> {
         }
 
         private void removeComments() {
-            if (this.comments != null) this.comments.clear();
-        }
-
-        public String getKey() {
-            return key;
-        }
-
-        public void setKey(String key) {
-            this.key = key;
-        }
-
-        public List<String> getComments() {
-            return comments;
+            this.comments = null;
         }
 
         @Override
         public String toString() {
             StringBuilder builder = new StringBuilder();
-            builder.append(key).append(" =").append("\n");
+            builder.append(key).append(" = ").append(value).append("\n");
             if (comments != null && !comments.isEmpty())
                 comments.forEach(s -> builder.append("# ").append(s).append('\n'));
             builder.deleteCharAt(builder.length() - 1);
@@ -526,12 +1002,55 @@ public class Section implements Iterable<Map.Entry<String, String>> {
             if (this == o) return true;
             if (!(o instanceof Node)) return false;
             Node node = (Node) o;
-            return Objects.equals(key, node.key) && Objects.equals(comments, node.comments);
+            return Objects.equals(key, node.key) && Objects.equals(value, node.value)
+                    && Objects.equals(comments, node.comments);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(key, comments);
+            return Objects.hash(key, value, comments);
+        }
+    }
+
+    private static class Itr implements Iterator<Map.Entry<String, String>> {
+        private Node next;
+
+        Itr(Node head) {
+            this.next = head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            Node node = next;
+            if (node == null) throw new NoSuchElementException();
+            next = node.next;
+            return new AbstractMap.SimpleImmutableEntry<>(node.key, node.value);
+        }
+    }
+
+    private static class CompactItr implements Iterator<Map.Entry<String, String>> {
+        private final CompactSection compact;
+        private int index = 0;
+
+        CompactItr(CompactSection compact) {
+            this.compact = compact;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < compact.size();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (index >= compact.size()) throw new NoSuchElementException();
+            int i = index++;
+            return new AbstractMap.SimpleImmutableEntry<>(compact.key(i), compact.value(i));
         }
     }
 
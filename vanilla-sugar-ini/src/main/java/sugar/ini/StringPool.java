@@ -0,0 +1,76 @@
+package sugar.ini;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字符串池，用于在读取 INI 时去重内容相同的字符串，参考 {@link IniDeserializer#setStringPool(StringPool)}
+ * <p>读取大量结构相似的 INI 文件时，区块名、键名以及常见的值大多是重复的。字符串经过字符串池后，
+ * 内容相同的字符串只会保留一份，可以显著减少内存占用。超过最大长度的字符串（通常是不重复的长文本）不会放入池中。</p>
+ * <p>字符串池中的字符串会一直被引用，直到调用 {@link #clear()}。此类是线程安全的，可以在多个线程的读取间共享。</p>
+ */
+public class StringPool {
+    /**
+     * 默认放入池中的字符串的最大长度
+     */
+    public static final int DEFAULT_MAX_LENGTH = 128;
+
+    private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+    private final int maxLength;
+
+    /**
+     * 构造一个字符串池，放入池中的字符串的最大长度为 {@link #DEFAULT_MAX_LENGTH}
+     */
+    public StringPool() {
+        this(DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * 构造一个字符串池
+     *
+     * @param maxLength 放入池中的字符串的最大长度
+     * @throws IllegalArgumentException 当 {@code maxLength} 小于 0
+     */
+    public StringPool(int maxLength) {
+        if (maxLength < 0) throw new IllegalArgumentException("Max length must not be negative");
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * 获取放入池中的字符串的最大长度
+     *
+     * @return 最大长度
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 返回池中与传入字符串内容相同的字符串。如果池中不存在，则将传入的字符串放入池中并返回。
+     *
+     * @param s 字符串
+     * @return 池中内容相同的字符串。如果 {@code s} 为 {@code null} 或长度超过最大长度，则返回 {@code s} 本身
+     */
+    public String intern(String s) {
+        if (s == null || s.length() > maxLength) return s;
+        String pooled = strings.get(s);
+        if (pooled != null) return pooled;
+        pooled = strings.putIfAbsent(s, s);
+        return pooled != null ? pooled : s;
+    }
+
+    /**
+     * 获取池中字符串的数量
+     *
+     * @return 字符串的数量
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * 清空字符串池。已经读取的 INI 对象不受影响。
+     */
+    public void clear() {
+        strings.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class ConcurrentIniTest {
+
+    @Test
+    void setAndGet() {
+        Ini origin = new Ini();
+        origin.setItemValue("sec1", "key1", "1");
+        origin.getUntitledSection().addComments("top");
+        ConcurrentIni ini = new ConcurrentIni(origin);
+        assertEquals("1", ini.getItemValue("sec1", "key1"));
+        assertEquals(1, ini.getItemValueAsInt("sec1", "key1"));
+        ini.setItemValue("sec2", "key2", "true");
+        ini.setItemValue("sec0", "key0", "0");
+        assertTrue(ini.getItemValueAsBool("sec2", "key2"));
+        assertEquals(asList("sec1", "sec2", "sec0"), ini.getSectionNames());
+        assertEquals(3, ini.count());
+        FrozenSection before = ini.get("sec1");
+        ini.update("sec1", section -> {
+            section.set("key1", "2");
+            section.addComments("comment");
+        });
+        assertEquals("1", before.get("key1"));
+        assertEquals("2", ini.getItemValue("sec1", "key1"));
+        assertEquals(asList("comment"), ini.get("sec1").getCommentsAfter("key1"));
+        assertTrue(ini.removeItem("sec1", "key1"));
+        assertFalse(ini.removeItem("sec1", "key1"));
+        assertFalse(ini.containsItemValue("sec1", "key1"));
+        assertTrue(ini.remove("sec0"));
+        assertFalse(ini.remove("sec0"));
+        assertNull(ini.get("sec0"));
+        ini.updateUntitledSection(section -> section.set("k", "v"));
+        assertEquals("v", ini.getUntitledSection().get("k"));
+        assertEquals(asList("top"), ini.getUntitledSection().getComments());
+
+        FrozenIni snapshot = ini.snapshot();
+        assertEquals(asList("sec1", "sec2"), snapshot.getSectionNames());
+        StringWriter writer = new StringWriter();
+        new IniSerializer().setLineSeparator("\n").write(snapshot, writer);
+        assertEquals(";top\nk=v\n[sec1]\n;comment\n[sec2]\nkey2=true\n", writer.toString());
+    }
+
+    @Test
+    void concurrentWrites() throws Exception {
+        ConcurrentIni ini = new ConcurrentIni();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final String name = "sec" + (t % 2);
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        ini.setItemValue(name, "key-" + thread + "-" + i, String.valueOf(i));
+                        // Keeps both keys equal in every snapshot
+                        final int value = i;
+                        ini.update("pair", section -> {
+                            section.set("a", String.valueOf(value));
+                            section.set("b", String.valueOf(value));
+                        });
+                        FrozenSection pair = ini.snapshot().get("pair");
+                        assertEquals(pair.get("a"), pair.get("b"));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(400, ini.get("sec0").count());
+        assertEquals(400, ini.get("sec1").count());
+        assertEquals("199", ini.getItemValue("sec1", "key-3-199"));
+    }
+}
@@ -0,0 +1,68 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+import static sugar.ini.Utils.getExampleIni;
+
+class FrozenIniTest {
+
+    @Test
+    void freeze() {
+        Ini ini = getExampleIni();
+        ini.setItemValue("sec2", "key3", "3");
+        FrozenIni frozen = ini.freeze();
+        assertEquals(2, frozen.count());
+        assertEquals(asList("sec1", "sec2"), frozen.getSectionNames());
+        assertEquals("value1", frozen.getItemValue("sec1", "key1"));
+        assertEquals("def", frozen.getItemValue("sec1", "non-exist", "def"));
+        assertEquals(3, frozen.getItemValueAsInt("sec2", "key3"));
+        assertTrue(frozen.containsItemValue("sec2", "key3"));
+        FrozenSection sec2 = frozen.get("sec2");
+        assertEquals(asList("comment before key3"), sec2.getCommentsBefore("key3"));
+        assertEquals(asList("comment after key3"), sec2.getCommentsAfter("key3"));
+        assertEquals("The dangling text", sec2.getDanglingText());
+        assertEquals(asList("This is a comment"), frozen.getUntitledSection().getComments());
+        // Modifying origin does not affect the snapshot
+        ini.get("sec1").set("key1", "changed");
+        ini.remove("sec2");
+        assertEquals("value1", frozen.getItemValue("sec1", "key1"));
+        assertTrue(frozen.contains("sec2"));
+        assertFalse(ini.get("sec1").isCompact());
+    }
+
+    @Test
+    void edit() {
+        FrozenIni frozen = getExampleIni().freeze();
+        Ini edited = frozen.edit();
+        assertEquals(getExampleIni(), edited);
+        assertTrue(edited.get("sec1").isCompact());
+        edited.get("sec1").set("key1", "changed");
+        edited.getOrAdd("sec3").set("key4", "value4");
+        // Only modified section is copied
+        assertFalse(edited.get("sec1").isCompact());
+        assertTrue(edited.get("sec2").isCompact());
+        assertEquals("value1", frozen.getItemValue("sec1", "key1"));
+        assertFalse(frozen.contains("sec3"));
+        FrozenIni refrozen = edited.freeze();
+        assertEquals("changed", refrozen.getItemValue("sec1", "key1"));
+        assertEquals(frozen.get("sec2"), refrozen.get("sec2"));
+        assertNotEquals(frozen, refrozen);
+        assertEquals(frozen, getExampleIni().freeze());
+        assertEquals(frozen.hashCode(), getExampleIni().freeze().hashCode());
+    }
+
+    @Test
+    void write() {
+        Ini ini = getExampleIni();
+        IniSerializer serializer = new IniSerializer().setLineSeparator("\n");
+        StringWriter expected = new StringWriter();
+        serializer.write(ini, expected);
+        StringWriter actual = new StringWriter();
+        serializer.write(ini.freeze(), actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
@@ -0,0 +1,132 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class IniBinaryCodecTest {
+
+    @Test
+    void encodeAndDecode() throws IOException {
+        Ini ini;
+        for (String name : asList("normal.ini", "abnormal.ini", "top-dangling.ini")) {
+            ini = new IniDeserializer().read(Utils.getInputStream(name), StandardCharsets.UTF_8);
+            IniBinaryCodec codec = new IniBinaryCodec();
+            Ini decoded = codec.decode(codec.encode(ini));
+            assertEquals(ini, decoded);
+            assertEquals(toText(ini), toText(decoded));
+        }
+
+        ini = new Ini();
+        ini.getUntitledSection().set("top", "值");
+        Section sec1 = ini.getOrAdd("sec1");
+        sec1.addComments("comment1");
+        sec1.set("key1", "same");
+        sec1.set("key2", "same");
+        sec1.addComments("comment2", "comment3");
+        ini.getOrAdd("sec2");
+        IniBinaryCodec codec = new IniBinaryCodec().setIncludeComments(false);
+        Ini decoded = codec.decode(codec.encode(ini));
+        assertEquals(ini.get("sec1").toMap(), decoded.get("sec1").toMap());
+        assertEquals("值", decoded.getUntitledSection().get("top"));
+        assertEquals(asList("sec1", "sec2"), decoded.getSectionNames());
+        assertEquals(Collections.emptyList(), decoded.get("sec1").getComments());
+        // Decoded sections are still mutable
+        decoded.get("sec1").set("key3", "value3");
+        assertEquals("value3", decoded.getItemValue("sec1", "key3"));
+
+        assertThrows(ReadWriteException.class, () -> codec.decode(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void loadCached(@TempDir Path dir) throws IOException {
+        Path source = dir.resolve("test.ini");
+        Path cache = dir.resolve("test.ini.bin");
+        Files.write(source, "[sec]\nkey=value1\n".getBytes(StandardCharsets.UTF_8));
+        IniBinaryCodec codec = new IniBinaryCodec();
+        Ini ini = codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        assertEquals("value1", ini.getItemValue("sec", "key"));
+        assertTrue(Files.exists(cache));
+        assertEquals(ini, codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8));
+
+        // Only touched: content hash matches
+        FileTime modified = FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 10_000);
+        Files.setLastModifiedTime(source, modified);
+        assertEquals(ini, codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8));
+
+        // Content changed
+        Files.write(source, "[sec]\nkey=value2\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(modified.toMillis() + 10_000));
+        ini = codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        assertEquals("value2", ini.getItemValue("sec", "key"));
+
+        // Broken cache is replaced
+        Files.write(cache, new byte[]{1, 2, 3});
+        ini = codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        assertEquals("value2", ini.getItemValue("sec", "key"));
+        assertEquals(ini, new IniBinaryCodec().decode(Files.readAllBytes(cache)));
+    }
+
+    @Test
+    void loadCachedBroken(@TempDir Path dir) throws IOException {
+        Path source = dir.resolve("test.ini");
+        Path cache = dir.resolve("test.ini.bin");
+        Files.write(source, "[sec]\nkey=value\n".getBytes(StandardCharsets.UTF_8));
+        IniBinaryCodec codec = new IniBinaryCodec();
+        Ini ini = codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        // Valid stamp with a truncated body
+        byte[] bytes = Files.readAllBytes(cache);
+        Files.write(cache, Arrays.copyOf(bytes, 70));
+        assertEquals(ini, codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8));
+        assertArrayEquals(bytes, Files.readAllBytes(cache));
+        // Valid stamp with a corrupted body
+        byte[] corrupted = bytes.clone();
+        for (int i = 58; i < corrupted.length; i++) corrupted[i] = (byte) 0xff;
+        Files.write(cache, corrupted);
+        assertEquals(ini, codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8));
+        assertArrayEquals(bytes, Files.readAllBytes(cache));
+        // Cache can not be read
+        Path unreadable = dir.resolve("dir.bin");
+        Files.createDirectories(unreadable.resolve("child"));
+        assertEquals(ini, codec.loadCached(source.toString(), unreadable.toString(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void loadCachedWithoutComments(@TempDir Path dir) throws IOException {
+        Path source = dir.resolve("test.ini");
+        Path cache = dir.resolve("test.ini.bin");
+        Files.write(source, "[sec]\n; comment\nkey=value\n".getBytes(StandardCharsets.UTF_8));
+        IniBinaryCodec codec = new IniBinaryCodec().setIncludeComments(false);
+        codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        // Cache is used and not rewritten
+        FileTime written = FileTime.fromMillis(1000);
+        Files.setLastModifiedTime(cache, written);
+        Ini ini = codec.loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        assertEquals(written, Files.getLastModifiedTime(cache));
+        assertEquals("value", ini.getItemValue("sec", "key"));
+        assertEquals(Collections.emptyList(), ini.get("sec").getComments());
+        // Cache without comments is not used when comments are included
+        ini = new IniBinaryCodec().loadCached(source.toString(), cache.toString(), StandardCharsets.UTF_8);
+        assertEquals(asList("comment"), ini.get("sec").getComments());
+        assertNotEquals(written, Files.getLastModifiedTime(cache));
+    }
+
+    private static String toText(Ini ini) throws IOException {
+        try (StringWriter writer = new StringWriter()) {
+            new IniSerializer().write(ini, writer);
+            return writer.toString();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import sugar.ini.exception.AccessValueException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniBinderTest {
+
+    static class BaseConfig {
+        String name;
+    }
+
+    static class DbConfig extends BaseConfig {
+        static int ignoredStatic = 1;
+        private int poolSize = 4;
+        Long maxRows;
+        double ratio;
+        boolean readOnly;
+        char separator;
+        Duration timeout;
+        TimeUnit unit;
+        transient String ignoredTransient;
+        Object ignoredType;
+    }
+
+    @Test
+    void readAndWrite() {
+        Ini ini = new Ini();
+        Section section = ini.getOrAdd("db");
+        section.set("name", "main");
+        section.set("maxRows", "1000");
+        section.set("ratio", "0.75");
+        section.set("readOnly", "TRUE");
+        section.set("separator", ",");
+        section.set("timeout", "30s");
+        section.set("unit", "seconds");
+        section.set("ignoredTransient", "value");
+        DbConfig config = IniBinder.read(section, DbConfig.class);
+        assertEquals("main", config.name);
+        assertEquals(4, config.poolSize);
+        assertEquals(1000L, config.maxRows);
+        assertEquals(0.75, config.ratio);
+        assertTrue(config.readOnly);
+        assertEquals(',', config.separator);
+        assertEquals(Duration.ofSeconds(30), config.timeout);
+        assertEquals(TimeUnit.SECONDS, config.unit);
+        assertNull(config.ignoredTransient);
+
+        section.set("poolSize", "16");
+        assertSame(config, IniBinder.readInto(section, config));
+        assertEquals(16, config.poolSize);
+
+        config.poolSize = 32;
+        config.maxRows = null;
+        Section written = ini.getOrAdd("written");
+        IniBinder.write(config, written);
+        assertEquals(Utils.asList("name", "poolSize", "ratio", "readOnly", "separator", "timeout", "unit"),
+                written.getKeys());
+        assertEquals("32", written.get("poolSize"));
+        assertEquals("SECONDS", written.get("unit"));
+        DbConfig copy = IniBinder.read(written, DbConfig.class);
+        assertEquals(32, copy.poolSize);
+        assertEquals(Duration.ofSeconds(30), copy.timeout);
+
+        section.set("poolSize", "many");
+        assertThrows(AccessValueException.class, () -> IniBinder.read(section, DbConfig.class));
+        section.set("poolSize", "32");
+        section.set("timeout", "999999999999999d");
+        assertThrows(AccessValueException.class, () -> IniBinder.read(section, DbConfig.class));
+        section.set("timeout", "30s");
+        // Integers are read exactly, or rejected when they have a fraction or overflow
+        section.set("maxRows", "9007199254740993");
+        assertEquals(9007199254740993L, IniBinder.read(section, DbConfig.class).maxRows);
+        assertEquals(section.getAsLong("maxRows"), IniBinder.read(section, DbConfig.class).maxRows);
+        section.set("poolSize", "1e2");
+        assertEquals(100, IniBinder.read(section, DbConfig.class).poolSize);
+        for (String invalid : Utils.asList("2147483648", "1.9", "9007199254740993.0")) {
+            section.set("poolSize", invalid);
+            assertThrows(AccessValueException.class, () -> IniBinder.read(section, DbConfig.class));
+        }
+        assertThrows(IllegalArgumentException.class, () -> IniBinder.read(section, Runnable.class));
+    }
+}
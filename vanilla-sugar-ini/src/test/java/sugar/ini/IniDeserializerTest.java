@@ -2,10 +2,23 @@ package sugar.ini;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sugar.ini.exception.AccessValueException;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
 
 class IniDeserializerTest {
 
@@ -96,5 +109,253 @@ class IniDeserializerTest {
         Assertions.assertEquals(Utils.asList("Comment1 before key1"), sectionC.getCommentsBefore("key1"));
         Assertions.assertEquals(Utils.asList("Comment1 before key1"), sectionC.getComments());
     }
-    
-}
\ No newline at end of file
+
+    @Test
+    void readMapped(@TempDir Path dir) throws IOException {
+        String[] contents = {
+                Utils.loadAsString("normal.ini"),
+                Utils.loadAsString("abnormal.ini"),
+                Utils.loadAsString("top-dangling.ini"),
+                "\r\n  top text\r\nk0=v0\r  next\r\n\u3000# 全角空白\n[ 区块 ]\r\n键 = 值\n\n;c1\rmore\n[x]",
+                ""
+        };
+        IniDeserializer[] deserializers = {
+                new IniDeserializer(),
+                new IniDeserializer().setTrimKey(false).setTrimValue(false).setTrimComment(false)
+                        .setTrimSectionName(false).setCommentPrefixes("#", "//"),
+                new IniDeserializer().setDanglingTextOption(IniDeserializer.DanglingTextOptions.TO_COMMENT)
+        };
+        Path file = dir.resolve("mapped.ini");
+        for (String content : contents) {
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            for (IniDeserializer deserializer : deserializers) {
+                Ini expected = deserializer.read(new StringReader(content));
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    Ini actual = deserializer.read(channel, StandardCharsets.UTF_8);
+                    assertEquals(expected, actual);
+                    assertEquals(toText(expected), toText(actual));
+                }
+            }
+        }
+        Files.write(file, contents[3].getBytes(StandardCharsets.UTF_8));
+        assertEquals(toText(new IniDeserializer().read(new StringReader(contents[3]))),
+                toText(IniReaderWriter.loadFromMappedFile(file.toString())));
+    }
+
+    @Test
+    void readWithHandler() {
+        final String danglingText = "  Dangling Content In Sec1\n\n  Next dangling line";
+        List<String> events = new ArrayList<>();
+        IniHandler handler = new IniHandler() {
+            @Override
+            public void onSection(String name) {
+                events.add("[" + name + "]");
+            }
+
+            @Override
+            public void onKeyValue(String key, String value) {
+                events.add(key + "=" + value);
+            }
+
+            @Override
+            public void onComment(String comment) {
+                events.add(";" + comment);
+            }
+
+            @Override
+            public void onDanglingText(String text) {
+                events.add(text);
+            }
+        };
+        new IniDeserializer().read(Utils.getInputStream("top-dangling.ini"), StandardCharsets.UTF_8, handler);
+        assertEquals(Utils.asList("[Sec1]", danglingText, ";Comment1 before key1", "key1=value1", "key2=value2",
+                "[Sec2]"), events);
+
+        events.clear();
+        new IniDeserializer().setDanglingTextOption(IniDeserializer.DanglingTextOptions.TO_COMMENT)
+                .setTrimValue(false)
+                .read(Utils.getInputStream("top-dangling.ini"), StandardCharsets.UTF_8, handler);
+        assertEquals(Utils.asList("[Sec1]", ";" + danglingText, ";Comment1 before key1", "key1= value1",
+                "key2= value2", "[Sec2]"), events);
+
+        events.clear();
+        new IniDeserializer().setDanglingTextOption(IniDeserializer.DanglingTextOptions.DROP)
+                .read(Utils.getInputStream("abnormal.ini"), StandardCharsets.UTF_8, handler);
+        assertEquals(Utils.asList("untitled-key1=untitled-value1", ";Comment before untitled key2\nand Value2",
+                "untitled key 2=untitled value 2", "[Sec1]", ";Comment1 before key1", ";Comment2 before key1",
+                "key1=value1", "key2=value2\n    value2 next line", ";Comment before key3", "key3=value3",
+                "[Sec2]", "[Sec3]", "key4=value4", "key5=value5"), events);
+    }
+
+    @Test
+    void readCompact() {
+        Ini expected = new IniDeserializer().read(Utils.getInputStream("abnormal.ini"), StandardCharsets.UTF_8);
+        Ini ini = new IniDeserializer().setCompactSections(true)
+                .read(Utils.getInputStream("abnormal.ini"), StandardCharsets.UTF_8);
+        assertTrue(ini.getUntitledSection().isCompact());
+        assertTrue(ini.get("Sec1").isCompact());
+        assertEquals(expected, ini);
+        assertEquals(expected.hashCode(), ini.hashCode());
+        assertEquals(toText(expected), toText(ini));
+        Section section1 = ini.get("Sec1");
+        assertEquals(3, section1.count());
+        assertEquals(6, section1.countKeyAndComments());
+        assertEquals("value2\n    value2 next line", section1.get("key2"));
+        assertTrue(section1.contains("key3"));
+        assertFalse(section1.contains("key4"));
+        assertEquals(Utils.asList("key1", "key2", "key3"), section1.getKeys());
+        assertEquals(Utils.asList("Comment1 before key1", "Comment2 before key1"), section1.getCommentsBefore("key1"));
+        assertEquals(Utils.asList("Comment before key3"), section1.getCommentsAfter("key2"));
+        assertEquals(expected.get("Sec1").getComments(), section1.getComments());
+        assertThrows(AccessValueException.class, () -> section1.getCommentsAfter("non-exist"));
+        // Clone shares storage, and modification only converts the modified section
+        Ini clone = ini.deepClone();
+        clone.get("Sec1").set("key1", "changed");
+        assertFalse(clone.get("Sec1").isCompact());
+        assertTrue(clone.get("Sec3").isCompact());
+        assertTrue(section1.isCompact());
+        assertEquals("value1", section1.get("key1"));
+        assertEquals("changed", clone.get("Sec1").get("key1"));
+        assertEquals(Utils.asList("Comment1 before key1", "Comment2 before key1"),
+                clone.get("Sec1").getCommentsBefore("key1"));
+        assertNotEquals(ini, clone);
+        clone.get("Sec1").set("key1", "value1");
+        assertEquals(ini, clone);
+    }
+
+    @Test
+    void readParallel(@TempDir Path dir) throws IOException {
+        StringBuilder builder = new StringBuilder("; top comment\ntop=value\nDangling\n");
+        for (int i = 0; i < 3000; i++) {
+            // Some sections appear more than once
+            String name = i % 7 == 3 ? "dup" + (i % 5) : "sec" + i;
+            builder.append(i % 2 == 0 ? "[ " : "[").append(name).append("]\r\n");
+            if (i % 11 == 0) builder.append("text on top\n");
+            for (int j = 0; j < 20; j++) {
+                builder.append("key").append(j % 15).append(" = value").append(i).append('-').append(j).append('\n');
+                if (j % 6 == 0) builder.append("; comment ").append(j).append("\r");
+                if (j % 9 == 0) builder.append("continued ").append(j).append("\r\n");
+            }
+        }
+        Path file = dir.resolve("parallel.ini");
+        Files.write(file, builder.toString().getBytes(StandardCharsets.UTF_8));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (IniDeserializer deserializer : new IniDeserializer[]{
+                    new IniDeserializer(), new IniDeserializer().setCompactSections(true)}) {
+                Ini expected = deserializer.read(new StringReader(builder.toString()));
+                channel.position(0);
+                Ini actual = deserializer.readParallel(channel, StandardCharsets.UTF_8, pool);
+                assertEquals(expected, actual);
+                assertEquals(expected.getSectionNames(), actual.getSectionNames());
+                assertEquals(toText(expected), toText(actual));
+                assertEquals("text on top", actual.get("sec0").getDanglingText());
+                assertEquals("value\nDangling", actual.getUntitledSection().get("top"));
+                assertEquals(deserializer.isCompactSections(), actual.get("dup3").isCompact());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void readLazily(@TempDir Path dir) throws IOException {
+        String content = "a=1\n[sec1]\nkey1=value1\n[sec2]\r\nkey2=value2\ncontinued\n; comment\n"
+                + "[ sec1 ]\nkey1=override\nkey3=value3\n[sec3]\ntext\nkey4=value4\n[sec4]\nkey5=value5";
+        Path file = dir.resolve("lazy.ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        for (IniDeserializer deserializer : new IniDeserializer[]{
+                new IniDeserializer(), new IniDeserializer().setCompactSections(true)}) {
+            Ini expected = deserializer.read(new StringReader(content));
+            Ini ini;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ini = deserializer.readLazily(channel, StandardCharsets.UTF_8);
+            }
+            assertEquals(asList("sec1", "sec2", "sec3", "sec4"), ini.getSectionNames());
+            assertEquals("1", ini.getUntitledSection().get("a"));
+            assertEquals("override", ini.getItemValue("sec1", "key1"));
+            assertEquals(asList("key1", "key3"), ini.get("sec1").getKeys());
+            assertEquals(deserializer.isCompactSections(), ini.get("sec1").isCompact());
+            ini.rename("sec3", "renamed");
+            assertEquals("text", ini.get("renamed").getDanglingText());
+            assertTrue(ini.remove("sec4"));
+            ini.getOrAdd("sec4").set("key6", "value6");
+            assertEquals(asList("key6"), ini.get("sec4").getKeys());
+            expected.rename("sec3", "renamed");
+            expected.remove("sec4");
+            expected.getOrAdd("sec4").set("key6", "value6");
+            assertEquals(expected, ini);
+            assertEquals(toText(expected), toText(ini));
+        }
+        Ini ini = IniReaderWriter.loadLazily(file.toString());
+        assertEquals(new IniDeserializer().read(new StringReader(content)), ini.deepClone());
+        assertEquals(toText(new IniDeserializer().read(new StringReader(content))), toText(ini));
+    }
+
+    @Test
+    void readWithStringPool(@TempDir Path dir) throws IOException {
+        String content = "[tenant]\nname=common\nregion=common\n; shared comment\n[other]\nname=common\n";
+        Path file = dir.resolve("pool.ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        StringPool pool = new StringPool();
+        IniDeserializer deserializer = new IniDeserializer().setStringPool(pool);
+        Ini ini1 = deserializer.read(new StringReader(content));
+        Ini ini2;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ini2 = deserializer.readLazily(channel, StandardCharsets.UTF_8);
+        }
+        assertEquals(new IniDeserializer().read(new StringReader(content)), ini1);
+        assertEquals(ini1, ini2);
+        // Strings with the same content are shared across reads
+        assertSame(ini1.getItemValue("tenant", "name"), ini1.getItemValue("tenant", "region"));
+        assertSame(ini1.getItemValue("tenant", "name"), ini2.getItemValue("other", "name"));
+        assertSame(ini1.get("tenant").getKeys().get(0), ini2.get("other").getKeys().get(0));
+        assertSame(ini1.getSectionNames().get(0), ini2.getSectionNames().get(0));
+        assertSame(ini1.get("tenant").getComments().get(0), ini2.get("tenant").getComments().get(0));
+        assertEquals(6, pool.size());
+        // Long strings are not pooled
+        StringPool small = new StringPool(3);
+        String pooled = small.intern(new String("abc"));
+        assertSame(pooled, small.intern(new String("abc")));
+        String s = new String("abcd");
+        assertSame(s, small.intern(s));
+        assertNotSame("abcd", small.intern(new String("abcd")));
+    }
+
+    @Test
+    void readAcrossBufferBoundary(@TempDir Path dir) throws IOException {
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 20000; i++) longValue.append((char) ('a' + i % 26));
+        String content = "; top\r\n[sec1]\r\nlong=" + longValue + "\r\nnext line\rlast line\r\n"
+                + "  // slash comment\n\u3000# 全角空白\nkey = [not a section\n[ sec2 ]\n=empty key\n"
+                + longValue + "=" + "\r\n\r\n";
+        IniDeserializer deserializer = new IniDeserializer().setCommentPrefixes("#", ";", "//");
+        Ini expected = deserializer.read(new StringReader(content));
+        assertEquals(longValue + "\nnext line\nlast line", expected.getItemValue("sec1", "long"));
+        assertEquals(asList("top"), expected.getUntitledSection().getComments());
+        assertEquals(asList("slash comment", "全角空白"), expected.get("sec1").getComments());
+        assertEquals("[not a section", expected.getItemValue("sec1", "key"));
+        assertEquals("empty key", expected.getItemValue("sec2", ""));
+        assertEquals("", expected.getItemValue("sec2", longValue.toString()));
+        // Reads one char at a time, so that every line crosses the buffer boundary
+        Ini actual = deserializer.read(new StringReader(content) {
+            @Override
+            public int read(char[] buf, int off, int len) throws IOException {
+                return super.read(buf, off, Math.min(len, 1));
+            }
+        });
+        assertEquals(expected, actual);
+        assertEquals(toText(expected), toText(actual));
+        Path file = dir.resolve("boundary.ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(toText(expected), toText(deserializer.read(channel, StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static String toText(Ini ini) {
+        StringWriter writer = new StringWriter();
+        new IniSerializer().setLineSeparator("\n").write(ini, writer);
+        return writer.toString();
+    }
+}
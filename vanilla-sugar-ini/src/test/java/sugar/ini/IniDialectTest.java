@@ -0,0 +1,170 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class IniDialectTest {
+
+    @Test
+    void python(@TempDir Path dir) throws IOException {
+        String content = "[server]\nhost: example.com\nport = 8080\nurl: http://a=b\n";
+        IniDeserializer deserializer = new IniDeserializer().setDialect(IniDialect.python());
+        Ini ini = deserializer.read(new StringReader(content));
+        assertEquals("example.com", ini.getItemValue("server", "host"));
+        assertEquals("8080", ini.getItemValue("server", "port"));
+        assertEquals("http://a=b", ini.getItemValue("server", "url"));
+        // Separators only, so mapped parsing is still used and gives the same result
+        Path file = dir.resolve("python.ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(ini, deserializer.readLazily(channel, StandardCharsets.UTF_8));
+        }
+        // Lines with ':' only are text by default
+        Ini plain = new IniDeserializer().read(new StringReader(content));
+        assertNull(plain.getItemValue("server", "host"));
+        assertEquals("host: example.com", plain.get("server").getDanglingText());
+    }
+
+    @Test
+    void gitConfig(@TempDir Path dir) throws IOException {
+        String content = "[core]\n" +
+                "\teditor = vim ; inline comment\n" +
+                "\tpager = \"less -R\" # another\n" +
+                "\tpadded = \"  spaced ; kept  \"\n" +
+                "\tescaped = tab\\there \\\"quoted\\\" back\\\\slash\n" +
+                "\tlong = first \\\n" +
+                "[not a section] \\\n" +
+                "  second\n" +
+                "\tquotedLong = \"a \\\n" +
+                "; b\"\n" +
+                "# comment line\n" +
+                "\tunknown = \\q\n";
+        IniDeserializer deserializer = new IniDeserializer().setDialect(IniDialect.gitConfig());
+        Ini ini = deserializer.read(new StringReader(content));
+        Section core = ini.get("core");
+        assertEquals("vim", core.get("editor"));
+        assertEquals("less -R", core.get("pager"));
+        assertEquals("  spaced ; kept  ", core.get("padded"));
+        assertEquals("tab\there \"quoted\" back\\slash", core.get("escaped"));
+        assertEquals("first [not a section]   second", core.get("long"));
+        assertEquals("a ; b", core.get("quotedLong"));
+        assertEquals("\\q", core.get("unknown"));
+        assertEquals(asList("comment line"), core.getComments());
+        assertEquals(asList("core"), ini.getSectionNames());
+        // Falls back to reading characters for file channels
+        Path file = dir.resolve("git.ini");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(ini, deserializer.readParallel(channel, StandardCharsets.UTF_8));
+        }
+        // Without dialect, the content is kept as is
+        Ini plain = new IniDeserializer().read(new StringReader(content));
+        assertEquals("vim ; inline comment", plain.getItemValue("core", "editor"));
+        assertTrue(plain.contains("not a section"));
+    }
+
+    @Test
+    void php() {
+        String content = "[db]\nuser = 'root' ; admin\npassword = \"p;ss\"\nname = app\n";
+        Ini ini = new IniDeserializer().setDialect(IniDialect.php()).read(new StringReader(content));
+        assertEquals("root", ini.getItemValue("db", "user"));
+        assertEquals("p;ss", ini.getItemValue("db", "password"));
+        assertEquals("app", ini.getItemValue("db", "name"));
+    }
+
+    @Test
+    void roundTrip() {
+        Ini ini = new Ini();
+        Section section = ini.getOrAdd("sec");
+        section.set("plain", "value");
+        section.set("spaces", "  padded  ");
+        section.set("inline", "a ; b # c");
+        section.set("quotes", "say \"hi\"");
+        section.set("escapes", "back\\slash\ttab");
+        section.set("multiLine", "line1\nline2");
+        section.set("trailing", "ends with \\");
+        IniDialect[] dialects = {IniDialect.windows(), IniDialect.python(), IniDialect.gitConfig(), IniDialect.php()};
+        for (IniDialect dialect : dialects) {
+            StringWriter writer = new StringWriter();
+            new IniSerializer().setDialect(dialect).setAddSpaceAroundEqualizer(true).setLineSeparator("\n")
+                    .write(ini, writer);
+            Ini read = new IniDeserializer().setDialect(dialect).read(new StringReader(writer.toString()));
+            Section actual = read.get("sec");
+            assertEquals("value", actual.get("plain"));
+            assertEquals("line1\nline2", actual.get("multiLine"));
+            if (dialect.getQuotes().isEmpty()) continue;
+            assertEquals("  padded  ", actual.get("spaces"));
+            assertEquals("a ; b # c", actual.get("inline"));
+            assertEquals("say \"hi\"", actual.get("quotes"));
+        }
+        StringWriter writer = new StringWriter();
+        new IniSerializer().setDialect(IniDialect.gitConfig()).setLineSeparator("\n").write(ini, writer);
+        Ini read = new IniDeserializer().setDialect(IniDialect.gitConfig()).read(new StringReader(writer.toString()));
+        assertEquals(ini.get("sec").toMap(), read.get("sec").toMap());
+        assertTrue(writer.toString().contains("plain=value\n"));
+    }
+
+    @Test
+    void roundTripPresets() {
+        String alphabet = "ab \"';#=:\\\t";
+        Random random = new Random(42);
+        IniDialect[] dialects = {IniDialect.windows(), IniDialect.python(), IniDialect.gitConfig(), IniDialect.php()};
+        for (IniDialect dialect : dialects) {
+            int written = 0;
+            for (int n = 0; n < 2000; n++) {
+                char[] chars = new char[1 + random.nextInt(8)];
+                for (int i = 0; i < chars.length; i++) chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+                String value = new String(chars);
+                // Values are trimmed when they can not be quoted
+                if (dialect.getQuotes().isEmpty() && !value.trim().equals(value)) continue;
+                String text;
+                try {
+                    text = write(dialect, "key", value);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                written++;
+                Ini read = new IniDeserializer().setDialect(dialect).read(new StringReader(text));
+                assertEquals(value, read.getItemValue("sec", "key"), text);
+            }
+            assertTrue(written > 1000);
+        }
+        // Contains all kinds of quotes, or quote in multiple lines, without escapes
+        assertThrows(IllegalArgumentException.class, () -> write(IniDialect.windows(), "key", "\"'#"));
+        assertThrows(IllegalArgumentException.class, () -> write(IniDialect.php(), "key", "':=\""));
+        assertThrows(IllegalArgumentException.class, () -> write(IniDialect.windows(), "key", "bb\"a\n"));
+        assertEquals("[sec]\nkey=line1\nline2\n", write(IniDialect.windows(), "key", "line1\nline2"));
+        // Key contains separator
+        assertThrows(IllegalArgumentException.class, () -> write(IniDialect.python(), "a:b", "v"));
+        assertThrows(IllegalArgumentException.class, () -> write(new IniDialect(), "a=b", "v"));
+    }
+
+    private static String write(IniDialect dialect, String key, String value) {
+        Ini ini = new Ini();
+        ini.setItemValue("sec", key, value);
+        StringWriter writer = new StringWriter();
+        new IniSerializer().setDialect(dialect).setLineSeparator("\n").write(ini, writer);
+        return writer.toString();
+    }
+
+    @Test
+    void invalidSymbols() {
+        assertThrows(IllegalArgumentException.class, () -> new IniDialect().setSeparators(""));
+        assertThrows(IllegalArgumentException.class, () -> new IniDialect().setSeparators(" "));
+        assertThrows(IllegalArgumentException.class, () -> new IniDialect().setQuotes("["));
+        assertThrows(IllegalArgumentException.class, () -> new IniDialect().setInlineCommentPrefixes("；"));
+    }
+}
@@ -0,0 +1,85 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import sugar.ini.exception.AccessValueException;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class IniDiffTest {
+
+    @Test
+    void compute() {
+        Ini a = getExampleIni();
+        assertTrue(IniDiff.compute(a, a.deepClone()).isEmpty());
+        Ini b = a.deepClone();
+        b.getUntitledSection().set("a", "2");
+        b.get("sec1").rename("key1", "key1-renamed");
+        b.get("sec1").set("key2", "changed");
+        b.get("sec1").remove("key3");
+        b.get("sec1").set("key4", "value4");
+        b.rename("sec2", "sec2-renamed");
+        b.remove("sec3");
+        b.getOrAdd("sec4").set("key5", "value5");
+        List<IniChange> changes = IniDiff.compute(a, b);
+        assertEquals(asList(
+                new IniChange(IniChange.Type.KEY_CHANGED, null, "a", "1", "2"),
+                new IniChange(IniChange.Type.SECTION_RENAMED, "sec2", null, null, null, "sec2-renamed"),
+                new IniChange(IniChange.Type.SECTION_REMOVED, "sec3", null, null, null),
+                new IniChange(IniChange.Type.KEY_RENAMED, "sec1", "key1", null, null, "key1-renamed"),
+                new IniChange(IniChange.Type.KEY_REMOVED, "sec1", "key3", "value3", null),
+                new IniChange(IniChange.Type.KEY_CHANGED, "sec1", "key2", "value2", "changed"),
+                new IniChange(IniChange.Type.KEY_ADDED, "sec1", "key4", null, "value4"),
+                new IniChange(IniChange.Type.SECTION_ADDED, "sec4", null, null, null),
+                new IniChange(IniChange.Type.KEY_ADDED, "sec4", "key5", null, "value5")
+        ), changes);
+        // Without detecting renames
+        List<IniChange> plain = IniDiff.compute(a, b, false);
+        assertTrue(plain.contains(new IniChange(IniChange.Type.SECTION_REMOVED, "sec2", null, null, null)));
+        assertTrue(plain.contains(new IniChange(IniChange.Type.KEY_REMOVED, "sec1", "key1", "value1", null)));
+        for (IniChange change : plain) {
+            assertNull(change.getNewName());
+        }
+    }
+
+    @Test
+    void apply() {
+        Ini a = getExampleIni();
+        Ini b = a.deepClone();
+        b.get("sec1").rename("key1", "key1-renamed");
+        b.get("sec1").remove("key2");
+        b.rename("sec2", "sec2-renamed");
+        b.getOrAdd("sec4").set("key5", "value5");
+        b.getUntitledSection().remove("a");
+        for (boolean detectRenames : new boolean[]{true, false}) {
+            Ini patched = a.deepClone();
+            IniDiff.apply(patched, IniDiff.compute(a, b, detectRenames));
+            assertEquals(b.getSectionNames(), patched.getSectionNames());
+            assertEquals(b.getUntitledSection().toMap(), patched.getUntitledSection().toMap());
+            for (String name : b.getSectionNames()) {
+                assertEquals(b.get(name).toMap(), patched.get(name).toMap());
+            }
+        }
+        // Patch does not match
+        List<IniChange> patch = IniDiff.compute(a, b);
+        Ini other = new Ini();
+        assertThrows(AccessValueException.class, () -> IniDiff.apply(other, patch));
+        IniDiff.apply(other, Collections.emptyList());
+        assertEquals(new Ini(), other);
+    }
+
+    private static Ini getExampleIni() {
+        Ini ini = new Ini();
+        ini.getUntitledSection().set("a", "1");
+        Section sec1 = ini.getOrAdd("sec1");
+        sec1.set("key1", "value1");
+        sec1.set("key2", "value2");
+        sec1.set("key3", "value3");
+        ini.getOrAdd("sec2").set("k", "v");
+        ini.getOrAdd("sec3").set("k", "other");
+        return ini;
+    }
+}
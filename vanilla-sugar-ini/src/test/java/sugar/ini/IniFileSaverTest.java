@@ -0,0 +1,118 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static sugar.ini.Utils.asList;
+
+class IniFileSaverTest {
+
+    @Test
+    void saveAtomically(@TempDir Path dir) throws IOException {
+        String path = dir.resolve("test.ini").toString();
+        Ini ini = new Ini();
+        ini.setItemValue("sec1", "key1", "value1");
+        IniReaderWriter.saveToFileAtomically(ini, path);
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+        ini.setItemValue("sec1", "key1", "value2");
+        new IniFileSaver().save(ini, path);
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+        // No temporary file is left
+        assertEquals(asList("test.ini"), listFiles(dir));
+    }
+
+    @Test
+    void keepPermissions(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        assumeTrue(Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class));
+        Files.createFile(file);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(file, permissions);
+        Ini ini = new Ini();
+        ini.setItemValue("sec1", "key1", "value1");
+        IniReaderWriter.saveToFileAtomically(ini, file.toString());
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+        permissions = PosixFilePermissions.fromString("rw-rw----");
+        Files.setPosixFilePermissions(file, permissions);
+        new IniFileSaver().save(ini, file.toString());
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+        assertEquals(ini, IniReaderWriter.loadFromFile(file.toString()));
+    }
+
+    @Test
+    void saveThroughSymbolicLink(@TempDir Path dir) throws IOException {
+        Path real = Files.createDirectories(dir.resolve("real")).resolve("test.ini");
+        Path link = dir.resolve("link.ini");
+        Files.createFile(real);
+        try {
+            Files.createSymbolicLink(link, real);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "Symbolic links are not supported");
+        }
+        Ini ini = new Ini();
+        ini.setItemValue("sec1", "key1", "value1");
+        IniReaderWriter.saveToFileAtomically(ini, link.toString());
+        new IniFileSaver().save(ini, link.toString());
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals(ini, IniReaderWriter.loadFromFile(real.toString()));
+        // Temporary files are created next to the real file
+        assertEquals(asList("test.ini"), listFiles(real.getParent()));
+    }
+
+    @Test
+    void groupCommit(@TempDir Path dir) throws IOException {
+        String path1 = dir.resolve("test1.ini").toString();
+        String path2 = dir.resolve("test2.ini").toString();
+        Ini ini = new Ini();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (IniFileSaver saver = new IniFileSaver().setGroupCommitWindow(60_000)) {
+            for (int i = 0; i < 10; i++) {
+                ini.setItemValue("sec", "key", String.valueOf(i));
+                futures.add(saver.saveAsync(ini, path1));
+            }
+            saver.saveAsync(ini, path2);
+            // Saves within the window share the same commit
+            for (CompletableFuture<Void> future : futures) {
+                assertSame(futures.get(0), future);
+            }
+            assertFalse(futures.get(0).isDone());
+            assertFalse(Files.exists(dir.resolve("test1.ini")));
+            ini.setItemValue("sec", "key", "changed");
+            saver.flush();
+            assertTrue(futures.get(0).isDone());
+            assertEquals("9", IniReaderWriter.loadFromFile(path1).getItemValue("sec", "key"));
+            assertEquals("9", IniReaderWriter.loadFromFile(path2).getItemValue("sec", "key"));
+            CompletableFuture<Void> last = saver.saveAsync(ini, path1);
+            assertNotSame(futures.get(0), last);
+        }
+        // Written when closed
+        assertEquals("changed", IniReaderWriter.loadFromFile(path1).getItemValue("sec", "key"));
+        assertEquals(asList("test1.ini", "test2.ini"), listFiles(dir));
+        IniFileSaver shortWindow = new IniFileSaver().setGroupCommitWindow(10);
+        shortWindow.save(ini, path2);
+        assertEquals("changed", IniReaderWriter.loadFromFile(path2).getItemValue("sec", "key"));
+        shortWindow.close();
+        assertThrows(IllegalStateException.class, () -> shortWindow.saveAsync(ini, path2));
+    }
+
+    private static List<String> listFiles(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class IniIndexTest {
+
+    @Test
+    void find() {
+        Ini ini = new IniDeserializer().setCompactSections(true).read(new StringReader("host=untitled\n" +
+                "[route.b]\nhost=foo\nweight=2\n" +
+                "[route.a]\nhost=foo\n" +
+                "[route.c]\nhost=bar\nweight=1\n" +
+                "[other]\nhost=foo\n"));
+        IniIndex index = new IniIndex(ini);
+        assertEquals(asList("other", "route.a", "route.b"), index.findByValue("host", "foo"));
+        assertEquals(asList("route.b", "route.c"), index.findByKey("weight"));
+        assertEquals(asList("route.a", "route.b", "route.c"), index.findByPrefix("route."));
+        assertEquals(asList("other", "route.a", "route.b", "route.c"), index.findByPrefix(""));
+        assertEquals(Collections.emptyList(), index.findByValue("host", "untitled"));
+        assertEquals(Collections.emptyList(), index.findByKey("none"));
+        assertEquals(Collections.emptyList(), index.findByPrefix("z"));
+    }
+
+    @Test
+    void update() {
+        Ini ini = new Ini();
+        ini.setItemValue("a", "host", "foo");
+        ini.setItemValue("b", "host", "foo");
+        IniIndex index = new IniIndex(ini);
+        // Section.set / remove / rename / clear
+        ini.get("a").set("host", "bar");
+        ini.get("a").set("weight", 1);
+        assertEquals(asList("b"), index.findByValue("host", "foo"));
+        assertEquals(asList("a"), index.findByValue("host", "bar"));
+        assertEquals(asList("a"), index.findByKey("weight"));
+        ini.get("a").rename("weight", "priority");
+        assertEquals(Collections.emptyList(), index.findByKey("weight"));
+        assertEquals(asList("a"), index.findByValue("priority", "1"));
+        ini.get("a").rename("priority", "host");
+        assertEquals(asList("a"), index.findByValue("host", "1"));
+        assertEquals(Collections.emptyList(), index.findByValue("host", "bar"));
+        assertTrue(ini.get("b").remove("host"));
+        assertEquals(asList("a"), index.findByKey("host"));
+        ini.get("a").clear();
+        assertEquals(Collections.emptyList(), index.findByKey("host"));
+        // Ini.getOrAdd / rename / remove
+        ini.setItemValue("c", "host", "foo");
+        assertEquals(asList("c"), index.findByValue("host", "foo"));
+        assertTrue(ini.rename("c", "route.c"));
+        assertEquals(asList("route.c"), index.findByValue("host", "foo"));
+        assertEquals(asList("route.c"), index.findByPrefix("route"));
+        ini.get("route.c").set("host", "baz");
+        assertEquals(asList("route.c"), index.findByValue("host", "baz"));
+        assertTrue(ini.remove("route.c"));
+        assertEquals(Collections.emptyList(), index.findByKey("host"));
+        assertEquals(asList("a", "b"), index.findByPrefix(""));
+
+        index.close();
+        assertThrows(IllegalStateException.class, () -> index.findByKey("host"));
+        ini.get("a").set("host", "after close");
+    }
+}
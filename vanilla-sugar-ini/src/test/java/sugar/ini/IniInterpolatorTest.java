@@ -0,0 +1,82 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import sugar.ini.exception.AccessValueException;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniInterpolatorTest {
+
+    @Test
+    void interpolate() {
+        Ini ini = new IniDeserializer().read(new StringReader("root=/opt/app\n" +
+                "[paths]\n" +
+                "home=${env:APP_HOME}\n" +
+                "logs=${home}/logs\n" +
+                "archive=${logs}/archive\n" +
+                "[db]\n" +
+                "url=jdbc:h2:${paths:home}/db;user=${env:USER}\n" +
+                "price=$$5 ${missing} ${nowhere:key} ${env:NONE} ${unclosed\n"));
+        Map<String, String> env = new HashMap<>();
+        env.put("APP_HOME", "/srv/app");
+        env.put("USER", "admin");
+        IniInterpolator interpolator = new IniInterpolator(ini).setEnvironment(env::get);
+        assertEquals("/srv/app/logs/archive", interpolator.getItemValue("paths", "archive"));
+        assertEquals("jdbc:h2:/srv/app/db;user=admin", interpolator.getItemValue("db", "url"));
+        assertEquals("$5 ${missing} ${nowhere:key} ${env:NONE} ${unclosed", interpolator.getItemValue("db", "price"));
+        assertEquals("/opt/app", interpolator.getUntitledItemValue("root"));
+        assertNull(interpolator.getItemValue("db", "none"));
+        assertEquals("def", interpolator.getItemValue("none", "none", "def"));
+    }
+
+    @Test
+    void invalidation() {
+        Ini ini = new Ini();
+        ini.setItemValue("a", "base", "1");
+        ini.setItemValue("a", "derived", "${base}-${b:other}");
+        ini.setItemValue("a", "unrelated", "${b:static}");
+        ini.setItemValue("b", "other", "x");
+        ini.setItemValue("b", "static", "s${env:HOME}");
+        IniInterpolator interpolator = new IniInterpolator(ini).setEnvironment(name -> "!");
+        String derived = interpolator.getItemValue("a", "derived");
+        String unrelated = interpolator.getItemValue("a", "unrelated");
+        assertEquals("1-x", derived);
+        assertEquals("s!", unrelated);
+        // Values not depending on the changed key are not recomputed
+        ini.get("a").set("base", "2");
+        assertSame(unrelated, interpolator.getItemValue("a", "unrelated"));
+        assertEquals("2-x", interpolator.getItemValue("a", "derived"));
+        derived = interpolator.getItemValue("a", "derived");
+        ini.get("b").set("static", "t");
+        assertSame(derived, interpolator.getItemValue("a", "derived"));
+        assertEquals("t", interpolator.getItemValue("a", "unrelated"));
+        // Structural changes
+        ini.get("b").remove("other");
+        assertEquals("2-${b:other}", interpolator.getItemValue("a", "derived"));
+        assertTrue(ini.remove("b"));
+        ini.setItemValue("c", "other", "y");
+        assertTrue(ini.rename("c", "b"));
+        assertEquals("2-y", interpolator.getItemValue("a", "derived"));
+    }
+
+    @Test
+    void circularReference() {
+        Ini ini = new Ini();
+        ini.setItemValue("s", "a", "${b}");
+        ini.setItemValue("s", "b", "${t:c}");
+        ini.setItemValue("t", "c", "${s:a}");
+        ini.setItemValue("s", "self", "${self}");
+        IniInterpolator interpolator = new IniInterpolator(ini);
+        AccessValueException e = assertThrows(AccessValueException.class, () -> interpolator.getItemValue("s", "a"));
+        assertEquals("Circular reference: s:a -> s:b -> t:c -> s:a", e.getMessage());
+        assertThrows(AccessValueException.class, () -> interpolator.getItemValue("s", "self"));
+        // Breaks the cycle
+        ini.setItemValue("t", "c", "end");
+        assertEquals("end", interpolator.getItemValue("s", "a"));
+        assertEquals("end", interpolator.getItemValue("s", "b"));
+    }
+}
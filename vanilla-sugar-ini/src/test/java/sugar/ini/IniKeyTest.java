@@ -0,0 +1,91 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import sugar.ini.exception.AccessValueException;
+
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniKeyTest {
+
+    @Test
+    void getAndSet() {
+        Ini ini = new Ini();
+        IniKey<Integer> poolSize = ini.bind("db", "poolSize", int.class);
+        assertEquals(Integer.class, poolSize.getType());
+        assertNull(poolSize.get());
+        assertEquals(8, poolSize.get(8));
+        assertFalse(poolSize.exists());
+        // Bound before the section exists
+        ini.setItemValue("db", "poolSize", "16");
+        assertEquals(16, poolSize.get());
+        assertTrue(poolSize.exists());
+        // Stays valid across set
+        ini.get("db").set("poolSize", 32);
+        assertEquals(32, poolSize.get());
+        poolSize.set(64);
+        assertEquals("64", ini.getItemValue("db", "poolSize"));
+        assertEquals(64, poolSize.get());
+
+        IniKey<String> url = ini.bind("db", "url", String.class);
+        url.set("jdbc:test");
+        assertEquals("jdbc:test", url.get());
+        ini.setItemValue("db", "timeout", "5s");
+        assertEquals(Duration.ofSeconds(5), ini.bind("db", "timeout", Duration.class).get());
+        ini.setItemValue("db", "unit", "MINUTES");
+        assertEquals(TimeUnit.MINUTES, ini.bind("db", "unit", TimeUnit.class).get());
+
+        ini.setItemValue("db", "poolSize", "many");
+        assertThrows(AccessValueException.class, poolSize::get);
+        assertThrows(IllegalArgumentException.class, () -> ini.bind("db", "poolSize", Object.class));
+    }
+
+    @Test
+    void invalidation() {
+        Ini ini = new Ini();
+        ini.setItemValue("db", "poolSize", "16");
+        IniKey<Integer> poolSize = ini.bind("db", "poolSize", Integer.class);
+        assertEquals(16, poolSize.get());
+        // Section.remove
+        ini.get("db").remove("poolSize");
+        assertNull(poolSize.get());
+        ini.setItemValue("db", "poolSize", "17");
+        assertEquals(17, poolSize.get());
+        // Section.rename
+        ini.get("db").rename("poolSize", "size");
+        assertNull(poolSize.get());
+        ini.get("db").rename("size", "poolSize");
+        assertEquals(17, poolSize.get());
+        // Ini.rename
+        assertTrue(ini.rename("db", "database"));
+        assertNull(poolSize.get());
+        assertEquals(17, ini.bind("database", "poolSize", Integer.class).get());
+        // Replaced by another section
+        ini.setItemValue("other", "poolSize", "18");
+        assertTrue(ini.rename("other", "db"));
+        assertEquals(18, poolSize.get());
+        // Ini.remove
+        assertTrue(ini.remove("db"));
+        assertNull(poolSize.get());
+        ini.setItemValue("db", "poolSize", "19");
+        assertEquals(19, poolSize.get());
+        ini.clear();
+        assertNull(poolSize.get());
+    }
+
+    @Test
+    void compactSections() {
+        Ini ini = new IniDeserializer().setCompactSections(true)
+                .read(new StringReader("[db]\npoolSize=16\nurl=jdbc:test\n"));
+        IniKey<Integer> poolSize = ini.bind("db", "poolSize", Integer.class);
+        assertEquals(16, poolSize.get());
+        // Converts back to normal storage when modified
+        ini.setItemValue("db", "url", "jdbc:other");
+        assertEquals(16, poolSize.get());
+        ini.setItemValue("db", "poolSize", "20");
+        assertEquals(20, poolSize.get());
+    }
+}
@@ -0,0 +1,53 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniReaderTest {
+
+    @Test
+    void readTokens() {
+        List<IniToken> tokens = new ArrayList<>();
+        try (IniReader reader = new IniDeserializer().openReader(Utils.getInputStream("top-dangling.ini"),
+                StandardCharsets.UTF_8)) {
+            reader.forEachRemaining(tokens::add);
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+        assertEquals(Utils.asList(
+                new IniToken(IniToken.Type.SECTION, null, "Sec1"),
+                new IniToken(IniToken.Type.DANGLING_TEXT, null, "  Dangling Content In Sec1\n\n  Next dangling line"),
+                new IniToken(IniToken.Type.COMMENT, null, "Comment1 before key1"),
+                new IniToken(IniToken.Type.KEY_VALUE, "key1", "value1"),
+                new IniToken(IniToken.Type.KEY_VALUE, "key2", "value2"),
+                new IniToken(IniToken.Type.SECTION, null, "Sec2")
+        ), tokens);
+    }
+
+    @Test
+    void stopEarly() {
+        String content = "[a]\nk1=v1\nk2=v2\n  next line\n[b]\nk3=v3\n";
+        List<String> keys = new ArrayList<>();
+        IniReader reader = new IniDeserializer().openReader(new StringReader(content));
+        boolean inSection = false;
+        while (reader.hasNext()) {
+            IniToken token = reader.next();
+            if (token.getType() == IniToken.Type.SECTION) {
+                if (inSection) break;
+                inSection = token.getValue().equals("a");
+            } else if (inSection && token.getType() == IniToken.Type.KEY_VALUE) {
+                keys.add(token.getKey() + "=" + token.getValue());
+            }
+        }
+        reader.close();
+        assertFalse(reader.hasNext());
+        assertEquals(Utils.asList("k1=v1", "k2=v2\n  next line"), keys);
+    }
+}
@@ -0,0 +1,112 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sugar.ini.exception.ReadWriteException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IniReaderWriterTest {
+    private static final String LS = System.lineSeparator();
+
+    @Test
+    void loadAll(@TempDir Path dir) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = dir.resolve("tenant" + i + ".ini");
+            write(file, "[tenant]", "id = " + i);
+            paths.add(file);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Map<Path, Ini> loaded = IniReaderWriter.loadAll(paths, executor);
+            assertEquals(paths, new ArrayList<>(loaded.keySet()));
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals(i, loaded.get(paths.get(i)).getItemValueAsInt("tenant", "id"));
+            }
+            paths.add(dir.resolve("missing.ini"));
+            assertThrows(ReadWriteException.class, () -> IniReaderWriter.loadAll(paths, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void saveIncremental(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        String path = file.toString();
+        write(file, "; top", "a = 1", "[sec1]", "key1 = value1", "[sec2]", "key2=abc", "[ sec3 ]", "k = v", "");
+        Ini ini = IniReaderWriter.loadFromMappedFile(path);
+
+        // Nothing changed
+        IniReaderWriter.saveIncremental(ini, path);
+        assertContent(file, "; top", "a = 1", "[sec1]", "key1 = value1", "[sec2]", "key2=abc", "[ sec3 ]", "k = v", "");
+
+        // Same length, patched in place
+        ini.get("sec2").set("key2", "xyz");
+        IniReaderWriter.saveIncremental(ini, path);
+        assertContent(file, "; top", "a = 1", "[sec1]", "key1 = value1", "[sec2]", "key2=xyz", "[ sec3 ]", "k = v", "");
+
+        // Different length, the tail is rewritten and unchanged sections are copied
+        ini.get("sec1").set("key1", "changed");
+        IniReaderWriter.saveIncremental(ini, path);
+        assertContent(file, "; top", "a = 1", "[sec1]", "key1=changed", "[sec2]", "key2=xyz", "[ sec3 ]", "k = v", "");
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+
+        // Adds, removes and renames sections
+        ini.remove("sec2");
+        ini.rename("sec3", "sec4");
+        ini.getOrAdd("sec5").set("k5", "v5");
+        IniReaderWriter.saveIncremental(ini, path);
+        assertContent(file, "; top", "a = 1", "[sec1]", "key1=changed", "[sec4]", "k=v", "[sec5]", "k5=v5", "");
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+
+        // Modified by others, falls back to a full write
+        write(file, "[other]", "x=1", "");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000));
+        ini.get("sec1").set("key1", "again");
+        IniReaderWriter.saveIncremental(ini, path);
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+        assertContent(file, ";top", "a=1", "[sec1]", "key1=again", "[sec4]", "k=v", "[sec5]", "k5=v5", "");
+    }
+
+    @Test
+    void saveIncrementalWithoutLineBreak(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        String path = file.toString();
+        write(file, "[sec1]", "key1 = value1", "[sec2]", "key2 = value2");
+        Ini ini = IniReaderWriter.loadFromMappedFile(path);
+        ini.getOrAdd("sec3").set("key3", "value3");
+        IniReaderWriter.saveIncremental(ini, path);
+        assertContent(file, "[sec1]", "key1 = value1", "[sec2]", "key2=value2", "[sec3]", "key3=value3", "");
+        assertEquals(ini, IniReaderWriter.loadFromFile(path));
+
+        // Not loaded from file
+        Ini created = new Ini();
+        created.setItemValue("sec", "key", "value");
+        IniReaderWriter.saveIncremental(created, path);
+        assertContent(file, "[sec]", "key=value", "");
+        created.setItemValue("sec", "key", "other");
+        IniReaderWriter.saveIncremental(created, path);
+        assertContent(file, "[sec]", "key=other", "");
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.write(file, String.join(LS, lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertContent(Path file, String... lines) throws IOException {
+        assertEquals(String.join(LS, lines), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+}
@@ -2,10 +2,17 @@ package sugar.ini;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class IniSerializerTest {
 
@@ -76,4 +83,39 @@ class IniSerializerTest {
         }
         return buffer.toString();
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveToChannel() {
+        Ini ini = new Ini();
+        ini.getUntitledSection().setDanglingText("Dangling ascii");
+        Section sec1 = ini.getOrAdd("区块");
+        sec1.addComments("注释 é \uD83D\uDE00");
+        sec1.set("key1", "値 \u00ff \u0100");
+        sec1.set("bad", "lone \uD800 surrogate \uDC00");
+        Section sec2 = ini.getOrAdd("Sec2");
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 100000; i++) longValue.append((char) ('a' + i % 26)).append(i % 100 == 0 ? "ü" : "");
+        sec2.set("long", longValue.toString());
+        IniSerializer serializer = new IniSerializer().setAddSpaceAroundEqualizer(true);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(7);
+        for (Charset charset : new Charset[]{StandardCharsets.UTF_8, StandardCharsets.US_ASCII,
+                StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16, Charset.forName("GBK")}) {
+            StringWriter writer = new StringWriter();
+            serializer.write(ini, writer);
+            byte[] expected = writer.toString().getBytes(charset);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            serializer.write(ini, Channels.newChannel(stream), charset);
+            assertArrayEquals(expected, stream.toByteArray(), charset.name());
+            stream.reset();
+            serializer.write(ini, stream, charset);
+            assertArrayEquals(expected, stream.toByteArray(), charset.name());
+            // Reused buffer
+            stream.reset();
+            serializer.write(ini, Channels.newChannel(stream), charset, buffer);
+            assertArrayEquals(expected, stream.toByteArray(), charset.name());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> serializer.write(ini, Channels.newChannel(new ByteArrayOutputStream()), StandardCharsets.UTF_8,
+                        ByteBuffer.allocate(3)));
+    }
+}
@@ -3,11 +3,16 @@ package sugar.ini;
 import org.junit.jupiter.api.Test;
 import sugar.ini.exception.AccessValueException;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static sugar.ini.Utils.asList;
+import static sugar.ini.Utils.getExampleIni;
 
 class IniTest {
 
@@ -80,6 +85,50 @@ class IniTest {
         assertNull(sec.getDanglingText());
     }
 
+    @Test
+    void typedValues() {
+        Section sec = new Ini().getOrAdd("test");
+        sec.set("int", 42);
+        sec.set("double", "1.5");
+        sec.set("bool", "TRUE");
+        sec.set("duration", "30s");
+        sec.set("iso", "PT1M");
+        sec.set("millis", "250");
+        sec.set("enum", "seconds");
+        assertEquals(42, sec.getAsInt("int"));
+        assertEquals(42L, sec.getAsLong("int"));
+        assertEquals(42, sec.getAsInt("int"));
+        assertEquals(1.5, sec.getAsDouble("double"));
+        assertTrue(sec.getAsBool("bool"));
+        assertFalse(sec.getAsBool("non-exist"));
+        assertEquals(Duration.ofSeconds(30), sec.getAsDuration("duration"));
+        assertEquals(Duration.ofMinutes(1), sec.getAsDuration("iso"));
+        assertEquals(Duration.ofMillis(250), sec.getAsDuration("millis"));
+        assertEquals(TimeUnit.SECONDS, sec.getAsEnum("enum", TimeUnit.class));
+        assertThrows(AccessValueException.class, () -> sec.getAsInt("double"));
+        assertThrows(AccessValueException.class, () -> sec.getAsInt("non-exist"));
+        assertThrows(AccessValueException.class, () -> sec.getAsDuration("bool"));
+        sec.set("overflow", "999999999999999d");
+        assertThrows(AccessValueException.class, () -> sec.getAsDuration("overflow"));
+        assertThrows(AccessValueException.class, () -> sec.getAsEnum("int", TimeUnit.class));
+        // Cached values are invalidated by modifications
+        sec.set("int", 7);
+        assertEquals(7, sec.getAsInt("int"));
+        assertTrue(sec.rename("int", "renamed"));
+        assertEquals(7, sec.getAsInt("renamed"));
+        assertThrows(AccessValueException.class, () -> sec.getAsInt("int"));
+        assertTrue(sec.remove("renamed"));
+        assertThrows(AccessValueException.class, () -> sec.getAsInt("renamed"));
+        // Compact storage
+        sec.set("int", 1);
+        sec.compact();
+        assertEquals(1, sec.getAsInt("int"));
+        assertEquals(1, sec.getAsInt("int"));
+        sec.set("int", 2);
+        assertEquals(2, sec.getAsInt("int"));
+        assertEquals(2, new FrozenSection(sec).getAsInt("int"));
+    }
+
     @Test
     void comments() {
         Section sec = new Ini().getOrAdd("test");
@@ -115,6 +164,50 @@ class IniTest {
         assertEquals(1, sec.countKeyAndComments());
     }
 
+    @Test
+    void keyOrder() {
+        Section sec = new Ini().getOrAdd("test");
+        for (int i = 0; i < 5; i++) {
+            sec.set("key" + i, "value" + i);
+            sec.addComments("comment" + i);
+        }
+        assertTrue(sec.rename("key2", "renamed"));
+        assertEquals(asList("key0", "key1", "renamed", "key3", "key4"), sec.getKeys());
+        assertEquals(asList("comment2"), sec.getCommentsAfter("renamed"));
+        // rename to an existing key replaces it
+        assertTrue(sec.rename("key0", "key3"));
+        assertEquals(asList("key3", "key1", "renamed", "key4"), sec.getKeys());
+        assertEquals("value0", sec.get("key3"));
+        assertEquals(asList("comment0"), sec.getCommentsAfter("key3"));
+        assertEquals(asList("comment1"), sec.getCommentsAfter("key1"));
+        assertEquals(asList("comment2", "comment3"), sec.getCommentsAfter("renamed"));
+        assertEquals(4, sec.count());
+        assertTrue(sec.remove("key3"));
+        assertEquals(asList("comment0"), sec.getCommentsBefore("key1"));
+        // iteration follows insertion order
+        List<String> iterated = new ArrayList<>();
+        sec.forEach(e -> iterated.add(e.getKey() + "=" + e.getValue()));
+        assertEquals(asList("key1=value1", "renamed=value2", "key4=value4"), iterated);
+        assertEquals(asList("key1", "renamed", "key4"), new ArrayList<>(sec.toMap().keySet()));
+    }
+
+    @Test
+    void sectionEquality() {
+        Section a = new Ini().getOrAdd("test");
+        Section b = new Ini().getOrAdd("test");
+        a.set("key", "value");
+        b.set("key", "value");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        b.set("key", "other");
+        assertNotEquals(a, b);
+        a.addComments("comment");
+        b.set("key", "value");
+        assertNotEquals(a, b);
+        a.removeCommentsAfter("key");
+        assertEquals(a, b);
+    }
+
     @Test
     void commentExceptions() {
         Section sec = new Ini().getOrAdd("test");
@@ -199,18 +292,4 @@ class IniTest {
         assertEquals(asList(), sec1.getComments());
         assertEquals(asList("comment before key3", "comment after key3"), sec2.getComments());
     }
-
-    private static Ini getExampleIni() {
-        Ini origin = new Ini();
-        origin.getUntitledSection().addComments("This is a comment");
-        Section orgSec1 = origin.getOrAdd("sec1");
-        orgSec1.set("key1", "value1");
-        orgSec1.set("key2", "value2");
-        Section orgSec2 = origin.getOrAdd("sec2");
-        orgSec2.set("key3", "value3");
-        orgSec2.addCommentsBefore("key3", asList("comment before key3"));
-        orgSec2.addCommentsAfter("key3", asList("comment after key3"));
-        orgSec2.setDanglingText("The dangling text");
-        return origin;
-    }
-}
\ No newline at end of file
+}
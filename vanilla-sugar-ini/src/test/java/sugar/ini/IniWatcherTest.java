@@ -0,0 +1,117 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class IniWatcherTest {
+
+    @Test
+    void refresh(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        write(file, "a=1\n[sec1]\nkey1=value1\nkey2=value2\n[sec2]\nkey3=value3\n", 1000);
+        try (IniWatcher watcher = new IniWatcher(file.toString())) {
+            List<IniChange> received = new ArrayList<>();
+            watcher.addListener((changes, current) -> received.addAll(changes));
+            assertEquals("value1", watcher.getCurrent().getItemValue("sec1", "key1"));
+            // Unchanged modification time and size
+            assertFalse(watcher.refresh());
+            // Same content
+            write(file, "a=1\n[sec1]\nkey1=value1\nkey2=value2\n[sec2]\nkey3=value3\n", 2000);
+            assertFalse(watcher.refresh());
+            assertTrue(received.isEmpty());
+
+            write(file, "a=1\n[sec1]\nkey1=changed\nkey4=value4\n[sec3]\nkey5=value5\n", 3000);
+            assertTrue(watcher.refresh());
+            assertEquals(asList(
+                    new IniChange(IniChange.Type.SECTION_REMOVED, "sec2", null, null, null),
+                    new IniChange(IniChange.Type.KEY_REMOVED, "sec1", "key2", "value2", null),
+                    new IniChange(IniChange.Type.KEY_CHANGED, "sec1", "key1", "value1", "changed"),
+                    new IniChange(IniChange.Type.KEY_ADDED, "sec1", "key4", null, "value4"),
+                    new IniChange(IniChange.Type.SECTION_ADDED, "sec3", null, null, null),
+                    new IniChange(IniChange.Type.KEY_ADDED, "sec3", "key5", null, "value5")
+            ), received);
+            assertEquals("changed", watcher.getCurrent().getItemValue("sec1", "key1"));
+
+            // Keeps previous content when the file is missing
+            Files.delete(file);
+            assertFalse(watcher.refresh());
+            assertEquals("changed", watcher.getCurrent().getItemValue("sec1", "key1"));
+        }
+    }
+
+    @Test
+    void refreshComments(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        write(file, "[sec1]\nkey1=value1\n", 1000);
+        try (IniWatcher watcher = new IniWatcher(file.toString())) {
+            List<IniChange> received = new ArrayList<>();
+            watcher.addListener((changes, current) -> received.addAll(changes));
+            // Only comments are changed, no listener is notified but the content is updated
+            write(file, "; comment\n[sec1]\n; key comment\nkey1=value1\n", 2000);
+            assertFalse(watcher.refresh());
+            assertTrue(received.isEmpty());
+            assertEquals(asList("key comment"), watcher.getCurrent().get("sec1").getComments());
+        }
+    }
+
+    @Test
+    void failingListener(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.ini");
+        write(file, "[sec1]\nkey1=value1\n", 1000);
+        Thread thread = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        List<Throwable> errors = new ArrayList<>();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try (IniWatcher watcher = new IniWatcher(file.toString())) {
+            List<IniChange> received = new ArrayList<>();
+            watcher.addListener((changes, current) -> {
+                throw new IllegalStateException("listener");
+            });
+            watcher.addListener((changes, current) -> received.addAll(changes));
+            write(file, "[sec1]\nkey1=value2\n", 2000);
+            assertTrue(watcher.refresh());
+            assertEquals(1, received.size());
+            assertEquals(1, errors.size());
+            assertEquals("listener", errors.get(0).getMessage());
+            assertEquals("value2", watcher.getCurrent().getItemValue("sec1", "key1"));
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    void watch(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("test.ini");
+        write(file, "[sec1]\nkey1=value1\n", 1000);
+        try (IniWatcher watcher = new IniWatcher(file.toString())) {
+            CountDownLatch latch = new CountDownLatch(1);
+            watcher.addListener((changes, current) -> {
+                if ("value2".equals(current.getItemValue("sec1", "key1"))) latch.countDown();
+            });
+            watcher.start();
+            assertThrows(IllegalStateException.class, watcher::start);
+            Files.write(dir.resolve("other.ini"), "[sec1]\nkey1=other\n".getBytes(StandardCharsets.UTF_8));
+            write(file, "[sec1]\nkey1=value2\n", 2000);
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            assertEquals("value2", watcher.getCurrent().getItemValue("sec1", "key1"));
+        }
+    }
+
+    private static void write(Path file, String content, long modified) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+    }
+}
@@ -0,0 +1,53 @@
+package sugar.ini;
+
+import org.junit.jupiter.api.Test;
+import sugar.ini.exception.AccessValueException;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static sugar.ini.Utils.asList;
+
+class MergedIniTest {
+
+    @Test
+    void layers() {
+        IniDeserializer deserializer = new IniDeserializer();
+        Ini defaults = deserializer.read(new StringReader(
+                "name=app\n[db]\n; database settings\nhost=localhost\nport=5432\npoolSize=8\n[cache]\nenabled=false"));
+        Ini environment = deserializer.read(new StringReader("[db]\nhost=db.internal\n[metrics]\nenabled=true"));
+        Ini local = deserializer.read(new StringReader("[db]\npoolSize=2\n[cache]\nenabled=true"));
+        MergedIni merged = new MergedIni(defaults, environment, local);
+
+        assertEquals(asList(defaults, environment, local), merged.getLayers());
+        assertEquals("db.internal", merged.getItemValue("db", "host"));
+        assertEquals("5432", merged.getItemValue("db", "port"));
+        assertEquals(2, merged.getItemValueAsInt("db", "poolSize"));
+        assertTrue(merged.getItemValueAsBool("cache", "enabled"));
+        assertTrue(merged.getItemValueAsBool("metrics", "enabled"));
+        assertNull(merged.getItemValue("db", "user"));
+        assertEquals("root", merged.getItemValue("db", "user", "root"));
+        assertThrows(AccessValueException.class, () -> merged.getItemValueAsInt("db", "user"));
+        assertTrue(merged.contains("metrics"));
+        assertFalse(merged.contains("other"));
+        assertTrue(merged.containsItemValue("db", "port"));
+        assertFalse(merged.containsItemValue("metrics", "port"));
+        assertEquals(asList("db", "cache", "metrics"), merged.getSectionNames());
+        assertEquals(asList("host", "port", "poolSize"), merged.getKeys("db"));
+
+        // Changes of layers are visible without copying
+        environment.setItemValue("db", "port", "6543");
+        assertEquals("6543", merged.getItemValue("db", "port"));
+
+        Ini ini = merged.toIni();
+        assertEquals("app", ini.getUntitledSection().get("name"));
+        assertEquals(asList("db", "cache", "metrics"), ini.getSectionNames());
+        assertEquals("db.internal", ini.getItemValue("db", "host"));
+        assertEquals("6543", ini.getItemValue("db", "port"));
+        assertEquals("2", ini.getItemValue("db", "poolSize"));
+        assertEquals(asList("database settings"), ini.get("db").getCommentsBefore("host"));
+        // The merged copy is independent of layers
+        ini.setItemValue("db", "host", "changed");
+        assertEquals("localhost", defaults.getItemValue("db", "host"));
+    }
+}
@@ -33,4 +33,18 @@ public class Utils {
             return bufferedReader.lines().collect(Collectors.joining("\n"));
         }
     }
+
+    static Ini getExampleIni() {
+        Ini origin = new Ini();
+        origin.getUntitledSection().addComments("This is a comment");
+        Section orgSec1 = origin.getOrAdd("sec1");
+        orgSec1.set("key1", "value1");
+        orgSec1.set("key2", "value2");
+        Section orgSec2 = origin.getOrAdd("sec2");
+        orgSec2.set("key3", "value3");
+        orgSec2.addCommentsBefore("key3", asList("comment before key3"));
+        orgSec2.addCommentsAfter("key3", asList("comment after key3"));
+        orgSec2.setDanglingText("The dangling text");
+        return origin;
+    }
 }